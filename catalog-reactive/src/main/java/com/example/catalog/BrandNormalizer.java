@@ -0,0 +1,50 @@
+package com.example.catalog;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Canonical brand key, matching Car.brandKey as written by the main API.
+ *
+ * Same rules and aliases as com.example.demo.service.BrandNormalizer;
+ * keep the two alias lists in sync.
+ */
+public final class BrandNormalizer {
+
+    // compacted alias -> canonical key
+    private static final Map<String, String> ALIASES = new HashMap<>();
+
+    static {
+        alias("mercedes", "merc", "mercedesbenz", "benz", "mb");
+        alias("volkswagen", "vw");
+        alias("suzuki", "maruti", "marutisuzuki");
+        alias("landrover", "rangerover");
+        alias("chevrolet", "chevy");
+        alias("lamborghini", "lambo");
+        alias("rollsroyce", "rolls");
+        alias("tata", "tatamotors");
+        alias("mahindra", "mahindramahindra", "mahindraandmahindra");
+        alias("astonmartin", "aston");
+        alias("alfaromeo", "alfa");
+    }
+
+    private BrandNormalizer() {}
+
+    private static void alias(String key, String... aliases) {
+        ALIASES.put(key, key);
+        for (String alias : aliases) {
+            ALIASES.put(alias, key);
+        }
+    }
+
+    public static String key(String brand) {
+        if (brand == null) return null;
+
+        // lower-case letters and digits only: "Mercedes-Benz " -> "mercedesbenz"
+        String compact = brand.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        if (compact.isEmpty()) return null;
+
+        return ALIASES.getOrDefault(compact, compact);
+    }
+}
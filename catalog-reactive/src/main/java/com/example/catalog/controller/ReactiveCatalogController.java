@@ -0,0 +1,62 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.BrandNormalizer;
+import com.example.catalog.model.CatalogCar;
+import com.example.catalog.repository.ReactiveCarRepository;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking twin of the main API's read-only catalog endpoints.
+ *
+ * Same paths and JSON as CarController, card fields only. Lists go out as
+ * a JSON array by default, or one car per line with
+ * Accept: application/x-ndjson; either way cars are written as they come
+ * off the cursor, and a slow client slows the cursor instead of holding a
+ * thread or buffering the whole list.
+ */
+@RestController
+@RequestMapping("/api/cars")
+@CrossOrigin(origins = {
+    "http://localhost:5173",
+    "http://localhost:5174"
+})
+public class ReactiveCatalogController {
+
+    private final ReactiveCarRepository carRepository;
+
+    public ReactiveCatalogController(ReactiveCarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CatalogCar> getAllCars() {
+        return carRepository.findApproved();
+    }
+
+    @GetMapping(value = "/new", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CatalogCar> getNewCars() {
+        return carRepository.findApprovedByCondition("New");
+    }
+
+    @GetMapping(value = "/used", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CatalogCar> getUsedCars() {
+        return carRepository.findApprovedByCondition("Used");
+    }
+
+    @GetMapping(value = "/brand/{brand}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CatalogCar> getCarsByBrand(@PathVariable String brand) {
+        String key = BrandNormalizer.key(brand);
+        return key == null ? Flux.empty() : carRepository.findApprovedByBrandKey(key);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CatalogCar>> getCarById(@PathVariable String id) {
+        return carRepository.findApprovedById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
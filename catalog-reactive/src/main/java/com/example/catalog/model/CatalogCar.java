@@ -0,0 +1,220 @@
+package com.example.catalog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Read model of the main API's Car, over the same "cars" collection.
+ *
+ * Only what the catalog serves: no certificate or legacy image binaries,
+ * so even an unprojected read never decodes them. The JSON matches the
+ * main API's Car for the same projection.
+ */
+@Document(collection = "cars")
+@JsonInclude(JsonInclude.Include.NON_NULL) // projected-out fields are left out of the JSON
+@JsonIgnoreProperties(value = "imageUrl", allowGetters = true)
+public class CatalogCar {
+
+    @Id
+    private String id;
+    private String sellerEmail;
+    private String title;
+    private String brand;
+    private String bodyType;
+    private String model;
+    private Integer year;
+    private String fuelType;
+    private Integer mileage;
+    private Integer engineCapacity;
+    private Double price;
+    private List<String> features;
+    private String description;
+    private String condition;
+    private String exteriorColor;
+    private String imageId;
+    private String sellerType;
+    private Boolean approved;
+    private String showroomEmail;
+    private String showroomId;
+    private Instant createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSellerEmail() {
+        return sellerEmail;
+    }
+
+    public void setSellerEmail(String sellerEmail) {
+        this.sellerEmail = sellerEmail;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getBodyType() {
+        return bodyType;
+    }
+
+    public void setBodyType(String bodyType) {
+        this.bodyType = bodyType;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public String getFuelType() {
+        return fuelType;
+    }
+
+    public void setFuelType(String fuelType) {
+        this.fuelType = fuelType;
+    }
+
+    public Integer getMileage() {
+        return mileage;
+    }
+
+    public void setMileage(Integer mileage) {
+        this.mileage = mileage;
+    }
+
+    public Integer getEngineCapacity() {
+        return engineCapacity;
+    }
+
+    public void setEngineCapacity(Integer engineCapacity) {
+        this.engineCapacity = engineCapacity;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(List<String> features) {
+        this.features = features;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public String getExteriorColor() {
+        return exteriorColor;
+    }
+
+    public void setExteriorColor(String exteriorColor) {
+        this.exteriorColor = exteriorColor;
+    }
+
+    public String getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(String imageId) {
+        this.imageId = imageId;
+    }
+
+    // Derived for the API only, never persisted
+    @Transient
+    public String getImageUrl() {
+        return imageId == null ? null : "/api/media/" + imageId;
+    }
+
+    public String getSellerType() {
+        return sellerType;
+    }
+
+    public void setSellerType(String sellerType) {
+        this.sellerType = sellerType;
+    }
+
+    public Boolean getApproved() {
+        return approved;
+    }
+
+    public void setApproved(Boolean approved) {
+        this.approved = approved;
+    }
+
+    public String getShowroomEmail() {
+        return showroomEmail;
+    }
+
+    public void setShowroomEmail(String showroomEmail) {
+        this.showroomEmail = showroomEmail;
+    }
+
+    public String getShowroomId() {
+        return showroomId;
+    }
+
+    public void setShowroomId(String showroomId) {
+        this.showroomId = showroomId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
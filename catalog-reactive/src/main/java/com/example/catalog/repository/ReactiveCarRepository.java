@@ -0,0 +1,33 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.model.CatalogCar;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Approved-car reads, pushed down to Mongo with the same filters and
+ * projections as the main API. Results are cursors: documents are pulled
+ * in driver batches only as fast as the subscriber (the HTTP response)
+ * requests them.
+ */
+public interface ReactiveCarRepository extends ReactiveMongoRepository<CatalogCar, String> {
+
+    // Everything a listing card renders (the main API's "card" field profile)
+    String CARD = "{ title: 1, brand: 1, model: 1, year: 1, price: 1, fuelType: 1, bodyType: 1,"
+            + " mileage: 1, condition: 1, sellerType: 1, imageId: 1 }";
+
+    @Query(value = "{ approved: true }", fields = CARD)
+    Flux<CatalogCar> findApproved();
+
+    @Query(value = "{ approved: true, condition: ?0 }", fields = CARD)
+    Flux<CatalogCar> findApprovedByCondition(String condition);
+
+    // exact match on the canonical key -> (brandKey, approved) index seek
+    @Query(value = "{ brandKey: ?0, approved: true }", fields = CARD)
+    Flux<CatalogCar> findApprovedByBrandKey(String brandKey);
+
+    @Query(value = "{ _id: ?0, approved: true }", fields = "{ certificate: 0, image1: 0, image2: 0 }")
+    Mono<CatalogCar> findApprovedById(String id);
+}
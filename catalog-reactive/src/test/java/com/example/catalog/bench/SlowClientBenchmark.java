@@ -0,0 +1,330 @@
+package com.example.catalog.bench;
+
+import com.example.catalog.CatalogReactiveApplication;
+import com.example.catalog.model.CatalogCar;
+import com.example.catalog.repository.ReactiveCarRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.netty.channel.ChannelOption;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Many concurrent slow clients reading GET /api/cars/all: blocking servlet
+ * path versus the reactive module.
+ *
+ * Each client reads its response at a capped rate through a small receive
+ * buffer, and in-process both servers cap their socket send buffer
+ * (-DsendBuffer), so a large list cannot be handed to the kernel at once;
+ * a blocking server keeps a request thread per slow reader.
+ *
+ * Without arguments both sides run in this JVM against the same in-memory
+ * catalog and the same simulated Mongo latency:
+ *   servlet  - Tomcat with Spring Boot's default 200 threads; sleep, then
+ *              Jackson writes the list to the blocking output stream
+ *              (what CarController does on the main API)
+ *   reactive - CatalogReactiveApplication itself, with the repository
+ *              replaced by a delayed in-memory Flux
+ * Peak threads count only each server's request-handling threads.
+ *
+ * With base URLs (e.g. http://host:8080 http://host:8081) the same clients
+ * hit running apps on a shared database and peak threads come from each
+ * app's /actuator/metrics/jvm.threads.live.
+ *
+ * Not run by surefire. Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.catalog.bench.SlowClientBenchmark [baseUrl...]
+ */
+public class SlowClientBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 500);
+    private static final int SECONDS = Integer.getInteger("seconds", 20);
+    private static final int CARS = Integer.getInteger("cars", 300);
+    private static final int LATENCY_MS = Integer.getInteger("latencyMs", 50);
+    private static final int READ_BYTES_PER_SECOND = Integer.getInteger("readRate", 32 * 1024);
+    private static final int RECEIVE_BUFFER = 4 * 1024;
+    // Loopback would autotune send buffers up to 4 MB and absorb whole responses;
+    // cap them on both servers the way a slow client's path does
+    private static final int SEND_BUFFER = Integer.getInteger("sendBuffer", 64 * 1024);
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%d clients reading at %d KB/s, %d s per run%n",
+                CLIENTS, READ_BYTES_PER_SECOND / 1024, SECONDS);
+        System.out.printf("%-28s %8s %9s %9s %12s %7s%n", "target", "resp/s", "p50 ms", "p99 ms", "peak threads", "errors");
+
+        if (args.length > 0) {
+            for (String base : args) {
+                URI uri = URI.create(base);
+                LongSupplier threads = actuatorThreads(uri);
+                print(base, load(uri.getHost(), uri.getPort(), threads));
+            }
+            return;
+        }
+
+        System.out.printf("(in-process: %d cars per response, %d ms simulated Mongo latency, %d KB send buffers)%n",
+                CARS, LATENCY_MS, SEND_BUFFER / 1024);
+        List<CatalogCar> cars = catalog(CARS);
+
+        Tomcat tomcat = servlet(cars);
+        tomcat.start();
+        print("servlet (200 threads)", load("localhost", tomcat.getConnector().getLocalPort(), threadsNamed("http-nio")));
+        tomcat.stop();
+        tomcat.destroy();
+
+        try (ConfigurableApplicationContext app = reactive(cars)) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            print("reactive (WebFlux)", load("localhost", port, threadsNamed("reactor-http", "parallel")));
+        }
+        System.exit(0); // Tomcat leaves non-daemon utility threads behind
+    }
+
+    // ================= LOAD =================
+    private static Result load(String host, int port, LongSupplier serverThreads) throws InterruptedException {
+        byte[] request = ("GET /api/cars/all HTTP/1.1\r\nHost: " + host + "\r\nAccept: application/json\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        long[] latencies = new long[CLIENTS * SECONDS * 20];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong peakThreads = new AtomicLong();
+
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakThreads.accumulateAndGet(serverThreads.getAsLong(), Math::max);
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (slowGet(host, port, request)) {
+                                int n = completed.getAndIncrement();
+                                if (n < latencies.length) latencies[n] = System.nanoTime() - sent;
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+
+        long[] sorted = Arrays.copyOf(latencies, Math.min(completed.get(), latencies.length));
+        Arrays.sort(sorted);
+        return new Result(sorted, completed.get() / elapsed, peakThreads.get(), errors.get());
+    }
+
+    // Reads the whole response at READ_BYTES_PER_SECOND; true on a 200
+    private static boolean slowGet(String host, int port, byte[] request) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(RECEIVE_BUFFER);
+            socket.setSoTimeout(60_000);
+            socket.connect(new InetSocketAddress(host, port), 10_000);
+
+            OutputStream out = socket.getOutputStream();
+            out.write(request);
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[RECEIVE_BUFFER];
+            long pausePerRead = TimeUnit.SECONDS.toNanos(1) * buffer.length / READ_BYTES_PER_SECOND;
+            boolean ok = false;
+            boolean first = true;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (first) {
+                    ok = new String(buffer, 0, Math.min(n, 12), StandardCharsets.US_ASCII).endsWith("200");
+                    first = false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(pausePerRead);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return ok;
+        }
+    }
+
+    // ================= SERVERS =================
+    private static Tomcat servlet(List<CatalogCar> cars) throws IOException {
+        ObjectMapper mapper = mapper();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("slow-client-bench").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+        protocol.setMaxThreads(200);
+        connector.setProperty("socket.txBufSize", String.valueOf(SEND_BUFFER));
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "catalog", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                try {
+                    Thread.sleep(LATENCY_MS); // blocking find()
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                resp.setContentType("application/json");
+                mapper.writeValue(resp.getOutputStream(), cars);
+            }
+        });
+        context.addServletMappingDecoded("/*", "catalog");
+        return tomcat;
+    }
+
+    private static ConfigurableApplicationContext reactive(List<CatalogCar> cars) {
+        ReactiveCarRepository repository = (ReactiveCarRepository) Proxy.newProxyInstance(
+                ReactiveCarRepository.class.getClassLoader(),
+                new Class<?>[] {ReactiveCarRepository.class},
+                (proxy, method, methodArgs) -> {
+                    if (method.getName().equals("findApproved")) {
+                        return Flux.fromIterable(cars).delaySubscription(Duration.ofMillis(LATENCY_MS));
+                    }
+                    switch (method.getName()) {
+                        case "toString": return "in-memory catalog";
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == methodArgs[0];
+                    }
+                    return Mono.error(new UnsupportedOperationException(method.getName()));
+                });
+
+        return new SpringApplicationBuilder(CatalogReactiveApplication.class)
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("reactiveCarRepository", repository);
+                    context.getBeanFactory().registerSingleton("sendBufferCustomizer",
+                            (NettyServerCustomizer) server -> server.childOption(ChannelOption.SO_SNDBUF, SEND_BUFFER));
+                })
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "spring.main.banner-mode=off",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration")
+                .run();
+    }
+
+    // ================= HELPERS =================
+    private static List<CatalogCar> catalog(int size) {
+        String[] brands = {"Toyota", "Honda", "BMW", "Hyundai", "Tata", "Mahindra"};
+        List<CatalogCar> cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CatalogCar car = new CatalogCar();
+            car.setId(String.format("65f0c0ffee%014d", i));
+            car.setTitle(brands[i % brands.length] + " listing " + i);
+            car.setBrand(brands[i % brands.length]);
+            car.setModel("Model " + (i % 17));
+            car.setYear(2010 + i % 14);
+            car.setPrice(300_000.0 + i * 1_250);
+            car.setFuelType(i % 3 == 0 ? "Diesel" : "Petrol");
+            car.setBodyType(i % 2 == 0 ? "SUV" : "Sedan");
+            car.setMileage(5_000 + i * 37);
+            car.setCondition(i % 4 == 0 ? "New" : "Used");
+            car.setSellerType(i % 4 == 0 ? "SHOWROOM" : "USER");
+            car.setImageId(String.format("%064x", i));
+            car.setCreatedAt(Instant.ofEpochSecond(1_700_000_000L + i));
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static LongSupplier threadsNamed(String... prefixes) {
+        return () -> Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> Arrays.stream(prefixes).anyMatch(t.getName()::startsWith))
+                .count();
+    }
+
+    private static LongSupplier actuatorThreads(URI base) {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/actuator/metrics/jvm.threads.live")).build();
+        Pattern value = Pattern.compile("\"value\"\\s*:\\s*([0-9.]+)");
+        return () -> {
+            try {
+                Matcher m = value.matcher(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+                return m.find() ? (long) Double.parseDouble(m.group(1)) : 0;
+            } catch (IOException e) {
+                return 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        };
+    }
+
+    private static void print(String target, Result result) {
+        System.out.printf("%-28s %8.1f %9.0f %9.0f %12d %7d%n", target, result.throughput,
+                result.percentile(50), result.percentile(99), result.peakThreads, result.errors);
+    }
+
+    private record Result(long[] sortedNanos, double throughput, long peakThreads, int errors) {
+        double percentile(int p) {
+            if (sortedNanos.length == 0) return 0;
+            int i = (int) Math.ceil(p / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(i, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.model.CatalogCar;
+import com.example.catalog.repository.ReactiveCarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveCatalogController.class)
+class ReactiveCatalogControllerTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@MockBean
+	private ReactiveCarRepository carRepository;
+
+	@Test
+	void streamsOneCarPerLineAsNdjson() {
+		when(carRepository.findApprovedByCondition("Used")).thenReturn(Flux.just(car("a", "img1"), car("b", null)));
+
+		client.get().uri("/api/cars/used")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class)
+				.isEqualTo("{\"id\":\"a\",\"brand\":\"Honda\",\"imageId\":\"img1\",\"imageUrl\":\"/api/media/img1\"}\n"
+						+ "{\"id\":\"b\",\"brand\":\"Honda\"}\n");
+	}
+
+	@Test
+	void brandAliasesUseTheCanonicalKey() {
+		when(carRepository.findApprovedByBrandKey("mercedes")).thenReturn(Flux.just(car("a", null)));
+
+		client.get().uri("/api/cars/brand/Mercedes-Benz")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(CatalogCar.class).hasSize(1);
+
+		verify(carRepository).findApprovedByBrandKey("mercedes");
+	}
+
+	@Test
+	void unknownCarIsNotFound() {
+		when(carRepository.findApprovedById("missing")).thenReturn(Mono.empty());
+
+		client.get().uri("/api/cars/missing")
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private static CatalogCar car(String id, String imageId) {
+		CatalogCar car = new CatalogCar();
+		car.setId(id);
+		car.setBrand("Honda");
+		car.setImageId(imageId);
+		return car;
+	}
+}
@@ -0,0 +1,162 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier read cache for approved-car queries.
+ *
+ * L1 is a bounded Caffeine cache per node (size + TTL eviction), L2 is the
+ * {@link SharedCacheStore}. Any {@link CarCatalogEvent} clears L1, advances
+ * the shared L2 generation and tells the other nodes to clear their L1.
+ * Loads write to L2 under the generation read before they hit Mongo, so a
+ * load racing an invalidation on any node lands in a retired generation.
+ */
+@Component
+public class CatalogCache {
+
+    private final Cache<String, Object> local;
+    private final SharedCacheStore shared;
+    private final Duration sharedTtl;
+
+    // identifies our own messages on the invalidation channel
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // bumped on every invalidation seen by this node; loads that raced with one are not kept in L1
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedErrors;
+    private final Counter invalidations;
+
+    // run after every local or remote invalidation, once the caches are empty
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public CatalogCache(SharedCacheStore shared,
+                        MeterRegistry meterRegistry,
+                        @Value("${cartrizo.cache.l1.max-size:500}") long maxSize,
+                        @Value("${cartrizo.cache.l1.ttl:60s}") Duration localTtl,
+                        @Value("${cartrizo.cache.l2.ttl:10m}") Duration sharedTtl) {
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        // hits, misses, evictions and size of L1
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "catalog.l1");
+
+        this.sharedHits = meterRegistry.counter("cartrizo.cache.l2.requests", "result", "hit");
+        this.sharedMisses = meterRegistry.counter("cartrizo.cache.l2.requests", "result", "miss");
+        this.sharedErrors = meterRegistry.counter("cartrizo.cache.l2.errors");
+        this.invalidations = meterRegistry.counter("cartrizo.cache.invalidations");
+
+        shared.onInvalidation(origin -> {
+            if (!nodeId.equals(origin)) {
+                generation.incrementAndGet();
+                local.invalidateAll();
+                notifyInvalidated();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+
+        long startGeneration = generation.get();
+        Long sharedGeneration = readSharedGeneration();
+
+        value = sharedGeneration != null ? readShared(sharedGeneration, key) : null;
+        if (value == null) {
+            value = loader.get();
+            if (value == null) {
+                return null;
+            }
+            if (sharedGeneration != null) {
+                writeShared(sharedGeneration, key, value);
+            }
+        }
+
+        if (generation.get() == startGeneration) {
+            local.put(key, value);
+        }
+        return (T) value;
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.increment();
+        local.invalidateAll();
+        try {
+            shared.advanceGeneration();
+            shared.publishInvalidation(nodeId);
+        } catch (Exception e) {
+            sharedErrors.increment();
+            System.out.println("⚠️ Shared cache invalidation failed: " + e.getMessage());
+        }
+        notifyInvalidated();
+    }
+
+    public void addInvalidationListener(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private void notifyInvalidated() {
+        invalidationListeners.forEach(Runnable::run);
+    }
+
+    // A broken L2 only costs a cache miss, never the request
+    private Long readSharedGeneration() {
+        try {
+            return shared.generation();
+        } catch (Exception e) {
+            sharedErrors.increment();
+            return null;
+        }
+    }
+
+    private Object readShared(long sharedGeneration, String key) {
+        try {
+            Object value = shared.get(sharedGeneration, key);
+            (value != null ? sharedHits : sharedMisses).increment();
+            return value;
+        } catch (Exception e) {
+            sharedErrors.increment();
+            return null;
+        }
+    }
+
+    private void writeShared(long sharedGeneration, String key, Object value) {
+        try {
+            shared.put(sharedGeneration, key, value, sharedTtl);
+        } catch (Exception e) {
+            sharedErrors.increment();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the public catalog, used for ETag and Last-Modified.
+ *
+ * Bumped whenever {@link CatalogCache} is invalidated (add, approve, reject,
+ * here or on another node), after the caches are empty, so a response tagged
+ * with the new version can never come from stale cache entries. The value is
+ * a whole-second epoch timestamp that moves forward by at least one second
+ * per change, so it doubles as an HTTP date without losing changes that land
+ * in the same second.
+ */
+@Component
+public class CatalogVersion {
+
+    private final CatalogCache catalogCache;
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis() / 1000 * 1000);
+
+    public CatalogVersion(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    // not from the constructor: the listener must not see a half-built instance
+    @PostConstruct
+    void listen() {
+        catalogCache.addInvalidationListener(this::bump);
+    }
+
+    public long bump() {
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        return version.updateAndGet(previous -> Math.max(now, previous + 1000));
+    }
+
+    // Epoch millis of the last change
+    public long current() {
+        return version.get();
+    }
+
+    // Weak ETag for one representation of a catalog resource at the given version.
+    // Weak because Tomcat will not gzip a response carrying a strong one, and the
+    // gzipped and plain bodies are the same data in different bytes anyway.
+    public static String etag(long version, String variant) {
+        String base = Long.toString(version / 1000, 36);
+        return "W/\"c" + base + (variant == null || variant.isEmpty() ? "" : "-" + variant) + "\"";
+    }
+}
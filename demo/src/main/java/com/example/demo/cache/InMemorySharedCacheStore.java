@@ -0,0 +1,63 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for {@link RedisSharedCacheStore}, used for single-node
+ * runs and tests (cartrizo.cache.l2.mode=local).
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private record Entry(Object value, long expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    // Older generations are unreachable from here on, so drop them right away
+    @Override
+    public long advanceGeneration() {
+        long current = generation.incrementAndGet();
+        String prefix = current + ":";
+        entries.keySet().removeIf(key -> !key.startsWith(prefix));
+        return current;
+    }
+
+    @Override
+    public Object get(long generation, String key) {
+        String entryKey = generation + ":" + key;
+        Entry entry = entries.get(entryKey);
+        if (entry == null) return null;
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(entryKey, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(long generation, String key, Object value, Duration ttl) {
+        entries.put(generation + ":" + key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void publishInvalidation(String originNodeId) {
+        listeners.forEach(listener -> listener.accept(originNodeId));
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
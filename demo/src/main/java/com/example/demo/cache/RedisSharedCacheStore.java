@@ -0,0 +1,77 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * L2 catalog cache in Redis. Entry keys carry the generation counter kept in
+ * {@link #GENERATION}; an INCR retires every entry at once without a KEYS
+ * scan or a delete that could race with a concurrent write. Invalidations
+ * are fanned out over a pub/sub channel.
+ */
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    static final String PREFIX = "catalog:cache:";
+    static final String GENERATION = "catalog:cache-gen";
+    static final String CHANNEL = "catalog:invalidate";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisSharedCacheStore(RedisTemplate<String, Object> redisTemplate,
+                                 RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    // INCRBY 0 reads the counter as a plain integer (and creates it at 0)
+    @Override
+    public long generation() {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION, 0);
+        return generation != null ? generation : 0;
+    }
+
+    @Override
+    public long advanceGeneration() {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION);
+        return generation != null ? generation : 0;
+    }
+
+    @Override
+    public Object get(long generation, String key) {
+        return redisTemplate.opsForValue().get(key(generation, key));
+    }
+
+    @Override
+    public void put(long generation, String key, Object value, Duration ttl) {
+        redisTemplate.opsForValue().set(key(generation, key), value, ttl);
+    }
+
+    @Override
+    public void publishInvalidation(String originNodeId) {
+        redisTemplate.convertAndSend(CHANNEL, originNodeId);
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(decode(message.getBody())),
+                new ChannelTopic(CHANNEL)
+        );
+    }
+
+    private static String key(long generation, String key) {
+        return PREFIX + generation + ":" + key;
+    }
+
+    // convertAndSend runs the payload through the template's JSON value serializer
+    private String decode(byte[] body) {
+        Object value = redisTemplate.getValueSerializer().deserialize(body);
+        return value != null ? value.toString() : new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second-level catalog cache shared by every node, plus the channel used
+ * to tell the other nodes to drop their in-process copies.
+ *
+ * Entries live under a shared generation. Invalidating advances it instead
+ * of deleting entries, so a load that read the old generation can only ever
+ * write where nobody reads any more; old generations just expire.
+ */
+public interface SharedCacheStore {
+
+    // The generation to read and write under right now
+    long generation();
+
+    // Moves every node on to a fresh, empty generation
+    long advanceGeneration();
+
+    Object get(long generation, String key);
+
+    void put(long generation, String key, Object value, Duration ttl);
+
+    // Fan an invalidation out to the other nodes
+    void publishInvalidation(String originNodeId);
+
+    // Called with the origin node id of every invalidation received
+    void onInvalidation(Consumer<String> listener);
+}
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import com.example.demo.cache.InMemorySharedCacheStore;
+import com.example.demo.cache.RedisSharedCacheStore;
+import com.example.demo.cache.SharedCacheStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheConfig {
+
+    // ================= L2 IN REDIS (default) =================
+    @Bean
+    @ConditionalOnProperty(name = "cartrizo.cache.l2.mode", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer catalogListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cartrizo.cache.l2.mode", havingValue = "redis", matchIfMissing = true)
+    public SharedCacheStore redisSharedCacheStore(RedisTemplate<String, Object> redisTemplate,
+                                                  RedisMessageListenerContainer catalogListenerContainer) {
+        return new RedisSharedCacheStore(redisTemplate, catalogListenerContainer);
+    }
+
+    // ================= L2 IN PROCESS (single node / tests) =================
+    @Bean
+    @ConditionalOnProperty(name = "cartrizo.cache.l2.mode", havingValue = "local")
+    public SharedCacheStore localSharedCacheStore() {
+        return new InMemorySharedCacheStore();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import com.example.demo.cache.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET for catalog reads.
+ *
+ * Every catalog response is tagged with {@link CatalogVersion}. A request
+ * whose If-None-Match (or If-Modified-Since) still matches is answered 304
+ * here, before the controller, cache or Mongo are touched. The tag is weak
+ * (W/"c..."), which If-None-Match compares weakly anyway, so server-side
+ * gzip still applies to the 200s.
+ */
+@Component
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogConditionalGetInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        // the same URL can be JSON or NDJSON; each representation needs its own tag
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String variant = accept == null ? "" : Integer.toHexString(accept.hashCode());
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        // sets ETag and Last-Modified, or the 304 status when the client is current
+        long version = catalogVersion.current();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(CatalogVersion.etag(version, variant), version);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import com.example.demo.event.CatalogEventBus;
+import com.example.demo.event.ChangeStreamCatalogEventBus;
+import com.example.demo.event.InProcessCatalogEventBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class CatalogEventConfig {
+
+    // ================= IN PROCESS (default, single node / tests) =================
+    @Bean
+    @ConditionalOnProperty(name = "cartrizo.catalog.events.source", havingValue = "local", matchIfMissing = true)
+    public CatalogEventBus inProcessCatalogEventBus(ApplicationEventPublisher eventPublisher) {
+        return new InProcessCatalogEventBus(eventPublisher);
+    }
+
+    // ================= MONGO CHANGE STREAM (multi node) =================
+    @Bean
+    @ConditionalOnProperty(name = "cartrizo.catalog.events.source", havingValue = "change-stream")
+    public ChangeStreamCatalogEventBus changeStreamCatalogEventBus(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${cartrizo.catalog.events.retry-delay:PT5S}") Duration retryDelay) {
+        return new ChangeStreamCatalogEventBus(mongoTemplate, eventPublisher, meterRegistry, retryDelay);
+    }
+}
@@ -1,22 +1,56 @@
 package com.example.demo.config;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.gridfs.GridFSBucket;
 import com.mongodb.client.gridfs.GridFSBuckets;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import java.time.Duration;
 
 @Configuration
 public class MongoConfig {
 
-    @Autowired
-    private MongoClient mongoClient;
+    // Same database (and "fs" bucket) that GridFsTemplate writes to
+    @Bean
+    public GridFSBucket gridFSBucket(MongoDatabaseFactory mongoDatabaseFactory) {
+        return GridFSBuckets.create(mongoDatabaseFactory.getMongoDatabase());
+    }
 
     @Bean
-    public GridFSBucket gridFSBucket() {
-        MongoDatabase database = mongoClient.getDatabase("carDB"); // same as your Mongo URI
-        return GridFSBuckets.create(database);
+    public MongoClientSettingsBuilderCustomizer mongoClientCustomizer(
+            @Value("${cartrizo.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${cartrizo.mongo.injected-latency:0ms}") Duration injectedLatency) {
+        return builder -> {
+            builder.applyToConnectionPoolSettings(pool -> pool.maxSize(maxPoolSize));
+
+            if (!injectedLatency.isZero()) {
+                System.out.println("⚠️ Injecting " + injectedLatency.toMillis() + " ms before every Mongo command");
+                builder.addCommandListener(new LatencyInjector(injectedLatency));
+            }
+        };
+    }
+
+    // Listeners run on the calling thread, so this blocks the request like a slow round trip would
+    static final class LatencyInjector implements CommandListener {
+
+        private final Duration latency;
+
+        LatencyInjector(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 }
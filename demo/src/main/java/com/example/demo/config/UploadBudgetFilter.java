@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import com.example.demo.service.UploadBudget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Applies {@link UploadBudget} to request bodies before anything reads them:
+ * multipart forms and raw chunk uploads to /api/uploads.
+ *
+ * Oversized requests are refused with 413 from their Content-Length alone.
+ * Requests without one reserve the largest allowed size.
+ */
+@Component
+public class UploadBudgetFilter extends OncePerRequestFilter {
+
+    private final UploadBudget uploadBudget;
+    private final long maxRequestBytes;
+
+    public UploadBudgetFilter(UploadBudget uploadBudget,
+                              @Value("${spring.servlet.multipart.max-request-size:25MB}") DataSize maxRequestSize) {
+        this.uploadBudget = uploadBudget;
+        this.maxRequestBytes = maxRequestSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"POST".equals(method) && !"PUT".equals(method)) return true;
+
+        String contentType = request.getContentType();
+        boolean multipart = contentType != null && contentType.toLowerCase().startsWith("multipart/");
+        return !multipart && !request.getRequestURI().startsWith("/api/uploads/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long length = request.getContentLengthLong();
+        if (length > maxRequestBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Upload too large");
+            return;
+        }
+
+        Optional<UploadBudget.Reservation> reservation;
+        try {
+            reservation = uploadBudget.reserve(length < 0 ? maxRequestBytes : length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        if (reservation.isEmpty()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many uploads in progress, retry shortly");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            reservation.get().close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogConditionalGetInterceptor catalogConditionalGetInterceptor;
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WebConfig(CatalogConditionalGetInterceptor catalogConditionalGetInterceptor,
+                     Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.catalogConditionalGetInterceptor = catalogConditionalGetInterceptor;
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // catalog reads only; /recommended is random on purpose, /contact(s) read showroom data,
+        // /submissions changes without a catalog version bump
+        registry.addInterceptor(catalogConditionalGetInterceptor)
+                .addPathPatterns("/api/cars/**")
+                .excludePathPatterns("/api/cars/recommended", "/api/cars/contact/**", "/api/cars/contacts", "/api/cars/submissions/**");
+    }
+
+    // CBOR and Smile for clients that ask for them; JSON stays the default.
+    // Same Jackson settings as JSON, and byte[] fields go out raw instead of Base64.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.*;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
@@ -9,6 +12,15 @@ import org.springframework.web.socket.server.support.HttpSessionHandshakeInterce
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final boolean virtualThreads;
+    private final int inboundThreads;
+
+    public WebSocketConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${cartrizo.stomp.inbound-threads:256}") int inboundThreads) {
+        this.virtualThreads = virtualThreads;
+        this.inboundThreads = inboundThreads;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // /topic = server broadcasts messages here
@@ -24,4 +36,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS()
                 .setInterceptors(new HttpSessionHandshakeInterceptor()); // ✅ preserves session cookies
     }
+
+    // Chat handlers save to Mongo; on virtual threads a slow write no longer ties up one of the 2 x cores default workers
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (!virtualThreads) return;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(Thread.ofVirtual().name("stomp-inbound-", 0).factory());
+        executor.setCorePoolSize(inboundThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        registration.taskExecutor(executor);
+    }
 }
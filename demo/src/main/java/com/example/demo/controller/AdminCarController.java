@@ -1,85 +1,183 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
 import com.example.demo.repository.CarRepository;
+import com.example.demo.service.BlobStore;
+import com.example.demo.service.FileStorageService;
+import com.example.demo.service.MediaTypes;
+import com.example.demo.service.ModerationService;
+import com.example.demo.service.NdjsonWriter;
+import com.example.demo.dto.BulkModerationRequest;
+import com.example.demo.dto.BulkModerationResult;
 import com.example.demo.dto.CarAdminResponse;
+import com.example.demo.dto.CarCursorPage;
+import com.example.demo.dto.ModerationOutcome;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin/cars")
 @CrossOrigin(origins = "http://localhost:5173")
 public class AdminCarController {
 
-    private final CarRepository carRepository;
+    // everything the moderation card shows; certificateId only to link the download
+    private static final CarFields MODERATION_FIELDS = CarFields.of(
+            "brand", "model", "year", "price", "fuelType", "mileage",
+            "condition", "description", "imageId", "certificateId");
 
-    public AdminCarController(CarRepository carRepository) {
+    private final CarRepository carRepository;
+    private final ModerationService moderationService;
+    private final NdjsonWriter ndjsonWriter;
+    private final FileStorageService fileStorageService;
+    private final BlobStore blobStore;
+
+    public AdminCarController(CarRepository carRepository,
+                              ModerationService moderationService,
+                              NdjsonWriter ndjsonWriter,
+                              FileStorageService fileStorageService,
+                              BlobStore blobStore) {
         this.carRepository = carRepository;
+        this.moderationService = moderationService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.fileStorageService = fileStorageService;
+        this.blobStore = blobStore;
     }
 
-    // 🔹 Get pending cars
-    @GetMapping("/pending")
-    public ResponseEntity<List<CarAdminResponse>> getPendingCars() {
-        List<CarAdminResponse> response = carRepository.findByApprovedFalse()
-                .stream()
-                .map(car -> {
-                    CarAdminResponse dto = new CarAdminResponse();
-                    dto.setId(car.getId());
-                    dto.setBrand(car.getBrand());
-                    dto.setModel(car.getModel());
-                    dto.setYear(car.getYear());
-                    dto.setPrice(car.getPrice());
-                    dto.setFuelType(car.getFuelType());
-                    dto.setCondition(car.getCondition());
-                  
-                    
-                    dto.setDescription(car.getDescription());
-
-                    // IMAGE BASE64
-                    /*if (car.getImage1() != null) {
-                        dto.setImage(Base64.getEncoder().encodeToString(car.getImage1()));
-                    }*/
-                    if (car.getImage() != null) {
-    dto.setImage(car.getImage()); // already base64
-}
+    // 🔹 Pending cars one keyset page at a time, oldest first, without binaries
+    @GetMapping(value = {"/pending", "/pending/feed"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public CarCursorPage<CarAdminResponse> getPendingCars(@RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        CarCursorPage<Car> page = carRepository.findPendingPage(after, limit, MODERATION_FIELDS);
+        return new CarCursorPage<>(
+                page.getItems().stream().map(this::toAdminResponse).toList(),
+                page.getNextCursor()
+        );
+    }
 
+    // 🔹 Accept: application/x-ndjson -> the whole queue as one JSON document per line
+    @GetMapping(value = "/pending/feed", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamPendingFeed(@RequestParam(required = false) String after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(ndjsonWriter.write(() -> carRepository.streamPending(after, MODERATION_FIELDS), this::toAdminResponse));
+    }
 
-                    // CERTIFICATE BASE64
-                    if (car.getCertificate() != null) {
-                        dto.setCertificate(Base64.getEncoder().encodeToString(car.getCertificate()));
-                    }
+    private CarAdminResponse toAdminResponse(Car car) {
+        CarAdminResponse dto = new CarAdminResponse();
+        dto.setId(car.getId());
+        dto.setBrand(car.getBrand());
+        dto.setModel(car.getModel());
+        dto.setYear(car.getYear());
+        dto.setPrice(car.getPrice());
+        dto.setFuelType(car.getFuelType());
+        dto.setKmDriven(car.getMileage());
+        dto.setCondition(car.getCondition());
+        dto.setCreatedAt(car.getCreatedAt());
+
+        dto.setDescription(car.getDescription());
+
+        // IMAGE + CERTIFICATE (both streamed, only links here)
+        dto.setImageUrl(car.getImageUrl());
+        if (car.getCertificateId() != null) {
+            dto.setCertificateUrl("/api/admin/cars/" + car.getId() + "/certificate");
+        }
 
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return dto;
+    }
 
-        return ResponseEntity.ok(response);
+    // 🔹 Certificate bytes, streamed from GridFS; only PDF, JPEG, PNG and WebP open inline
+    @GetMapping("/{id}/certificate")
+    public ResponseEntity<Resource> getCertificate(@PathVariable String id) {
+        List<Car> refs = carRepository.findMediaRefs(List.of(id));
+        if (refs.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String certificateId = refs.get(0).getCertificateId();
+        if (certificateId == null) {
+            return legacyCertificate(id);
+        }
+
+        Optional<GridFSFile> file = blobStore.findFile(certificateId);
+        if (file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GridFsResource resource = fileStorageService.getResource(file.get());
+        return certificateResponse(resource.getContentType(), file.get().getFilename())
+                .contentLength(file.get().getLength())
+                .body(resource);
     }
 
-    // 🔹 Approve a car
-    @PutMapping("/approve/{id}")
-    public ResponseEntity<?> approveCar(@PathVariable String id) {
-        Car car = carRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Car not found"));
+    // Cars saved before certificates moved to the blob store and not yet migrated
+    private ResponseEntity<Resource> legacyCertificate(String id) {
+        byte[] bytes = carRepository.findById(id).map(Car::getCertificate).orElse(null);
+        if (bytes == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String contentType = MediaTypes.sniff(bytes, bytes.length);
+        return certificateResponse(contentType, "certificate-" + id)
+                .body(new ByteArrayResource(bytes));
+    }
 
-        car.setApproved(true);
-        carRepository.save(car);
+    private static ResponseEntity.BodyBuilder certificateResponse(String storedType, String filename) {
+        MediaType type = MediaTypes.servable(storedType, MediaTypes.CERTIFICATES);
+        ContentDisposition.Builder disposition = MediaType.APPLICATION_OCTET_STREAM.equals(type)
+                ? ContentDisposition.attachment()
+                : ContentDisposition.inline();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        disposition.filename(filename, StandardCharsets.UTF_8).build().toString());
+    }
 
+    // 🔹 Approve a car (one $set, the document is not loaded)
+    @PutMapping("/approve/{id}")
+    public ResponseEntity<?> approveCar(@PathVariable String id) {
+        if (isNotFound(moderationService.approve(List.of(id)))) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok("Car approved successfully");
     }
 
     // 🔹 Reject a car
     @DeleteMapping("/reject/{id}")
     public ResponseEntity<?> rejectCar(@PathVariable String id) {
-        if (!carRepository.existsById(id)) {
+        if (isNotFound(moderationService.reject(List.of(id)))) {
             return ResponseEntity.notFound().build();
         }
-
-        carRepository.deleteById(id);
         return ResponseEntity.ok("Car rejected and removed");
     }
+
+    // ================= BULK MODERATION =================
+    // {"ids": [...]} -> one outcome per id; up to 1000 ids, one write for the whole batch
+    @PostMapping("/bulk/approve")
+    public BulkModerationResult approveCars(@RequestBody BulkModerationRequest request) {
+        return moderationService.approve(request.getIds());
+    }
+
+    @PostMapping("/bulk/reject")
+    public BulkModerationResult rejectCars(@RequestBody BulkModerationRequest request) {
+        return moderationService.reject(request.getIds());
+    }
+
+    private static boolean isNotFound(BulkModerationResult result) {
+        return result.getResults().get(0).getStatus() == ModerationOutcome.Status.NOT_FOUND;
+    }
 }
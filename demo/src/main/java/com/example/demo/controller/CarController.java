@@ -1,21 +1,46 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CarCursorPage;
+import com.example.demo.dto.CarFacets;
+import com.example.demo.dto.CarPage;
+import com.example.demo.dto.CarSearchRequest;
+import com.example.demo.dto.CatalogChanges;
 import com.example.demo.dto.ShowroomDTO;
+import com.example.demo.dto.SubmissionStatus;
+import com.example.demo.dto.Suggestion;
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.event.CatalogEventBus;
 import com.example.demo.model.Car;
-import com.example.demo.model.Showroom;
+import com.example.demo.repository.CarFields;
 import com.example.demo.repository.CarRepository;
-import com.example.demo.repository.ShowroomRepository;
 import com.example.demo.security.JwtUtil;
-
+import com.example.demo.service.BlobStore;
+import com.example.demo.service.CarCatalogService;
+import com.example.demo.service.CarSubmissionService;
+import com.example.demo.service.CatalogSyncService;
+import com.example.demo.service.NdjsonWriter;
+import com.example.demo.service.RecommendationSampler;
+import com.example.demo.service.ResumableUploadService;
+import com.example.demo.service.ShowroomDirectory;
+import com.example.demo.service.SimilarCarsIndex;
+import com.example.demo.service.SuggestionIndex;
+import com.example.demo.service.TextSearchService;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.Base64;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Collections;
-import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -28,64 +53,166 @@ import java.util.Optional;
 
 public class CarController {
 
+    private static final int MAX_CONTACT_IDS = 100;
+
     private final CarRepository carRepository;
-    private final ShowroomRepository showroomRepository;
+    private final ShowroomDirectory showroomDirectory;
     private final JwtUtil jwtUtil;
+    private final BlobStore blobStore;
+    private final CarCatalogService carCatalogService;
+    private final CatalogEventBus catalogEvents;
+    private final RecommendationSampler recommendationSampler;
+    private final NdjsonWriter ndjsonWriter;
+    private final TextSearchService textSearchService;
+    private final SuggestionIndex suggestionIndex;
+    private final SimilarCarsIndex similarCarsIndex;
+    private final ResumableUploadService resumableUploadService;
+    private final CarSubmissionService carSubmissionService;
+    private final CatalogSyncService catalogSyncService;
 
    
      public CarController(CarRepository carRepository,
-                         ShowroomRepository showroomRepository,
-                         JwtUtil jwtUtil) {
+                         ShowroomDirectory showroomDirectory,
+                         JwtUtil jwtUtil,
+                         BlobStore blobStore,
+                         CarCatalogService carCatalogService,
+                         CatalogEventBus catalogEvents,
+                         RecommendationSampler recommendationSampler,
+                         NdjsonWriter ndjsonWriter,
+                         TextSearchService textSearchService,
+                         SuggestionIndex suggestionIndex,
+                         SimilarCarsIndex similarCarsIndex,
+                         ResumableUploadService resumableUploadService,
+                         CarSubmissionService carSubmissionService,
+                         CatalogSyncService catalogSyncService) {
         this.carRepository = carRepository;
-        this.showroomRepository = showroomRepository;
+        this.showroomDirectory = showroomDirectory;
         this.jwtUtil = jwtUtil;
+        this.blobStore = blobStore;
+        this.carCatalogService = carCatalogService;
+        this.catalogEvents = catalogEvents;
+        this.recommendationSampler = recommendationSampler;
+        this.ndjsonWriter = ndjsonWriter;
+        this.textSearchService = textSearchService;
+        this.suggestionIndex = suggestionIndex;
+        this.similarCarsIndex = similarCarsIndex;
+        this.resumableUploadService = resumableUploadService;
+        this.carSubmissionService = carSubmissionService;
+        this.catalogSyncService = catalogSyncService;
     }
 
     // 🔹 Show only approved cars
+    // ?fields=card (default) | full | comma separated list of properties
     @GetMapping("/all")
-    public List<Car> getAllCars() {
-        return carRepository.findByApprovedTrue();
+    public List<Car> getAllCars(@RequestParam(required = false) String fields) {
+        return carCatalogService.findApproved(null, CarFields.parse(fields));
     }
 
     // Get all new cars
    @GetMapping("/new")
-public List<Car> getNewCars() {
-    return carRepository.findByConditionAndApprovedTrue("New");
+public List<Car> getNewCars(@RequestParam(required = false) String fields) {
+    return carCatalogService.findApproved("New", CarFields.parse(fields));
 }
 
 @GetMapping("/used")
-public List<Car> getUsedCars() {
-    return carRepository.findByConditionAndApprovedTrue("Used");
+public List<Car> getUsedCars(@RequestParam(required = false) String fields) {
+    return carCatalogService.findApproved("Used", CarFields.parse(fields));
 }
 
+    // Random picks for the home page; cost stays constant as the catalog grows
     @GetMapping("/recommended")
-public List<Car> getRecommendedCars() {
-
-    // 1️⃣ Get both New + Used approved cars
-    List<Car> cars = carRepository.findByApprovedTrueAndConditionIn(
-            Arrays.asList("New", "Used")
-    );
-
-    // 2️⃣ Shuffle (random order)
-    Collections.shuffle(cars);
-
-    // 3️⃣ Return only first 6 cars
-    return cars.stream().limit(6).toList();
+public List<Car> getRecommendedCars(@RequestParam(required = false) String fields) {
+    return recommendationSampler.sample(6, CarFields.parse(fields));
 }
 
     // Get all used cars
    
+    // ================= SEARCH =================
+    // Filters, sorting and paging run in Mongo; only one page is returned
+    @GetMapping("/search")
+    public CarPage<Car> searchCars(@ModelAttribute CarSearchRequest request,
+                                   @RequestParam(required = false) String fields) {
+        return carCatalogService.search(request, CarFields.parse(fields));
+    }
+
+    // ================= FACETS =================
+    // Same filters as /search; counts for the filter panels
+    @GetMapping("/facets")
+    public CarFacets facets(@ModelAttribute CarSearchRequest request) {
+        return carCatalogService.facets(request);
+    }
+
+    // ================= KEYWORD SEARCH =================
+    // BM25 ranked, answered from the in-memory index; only the hits are read from Mongo
+    @GetMapping("/text-search")
+    public List<Car> textSearch(@RequestParam String q,
+                                @RequestParam(defaultValue = "20") int limit,
+                                @RequestParam(required = false) String fields) {
+        List<String> ids = textSearchService.search(q, Math.min(Math.max(limit, 1), 100));
+        return carRepository.findApprovedInOrder(ids, CarFields.parse(fields));
+    }
+
+    // ================= AUTOCOMPLETE =================
+    // Brand / model / "brand model" completions, most listed first
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(@RequestParam String q,
+                                    @RequestParam(defaultValue = "8") int limit) {
+        return suggestionIndex.suggest(q, limit);
+    }
+
+    // ================= SIMILAR CARS =================
+    // Nearest approved cars by price, year, mileage, engine, fuel and body type
+    @GetMapping("/{id}/similar")
+    public List<Car> similarCars(@PathVariable String id,
+                                 @RequestParam(defaultValue = "6") int limit,
+                                 @RequestParam(required = false) String fields) {
+        List<String> ids = similarCarsIndex.similar(id, limit);
+        return carRepository.findApprovedInOrder(ids, CarFields.parse(fields));
+    }
+
+    // ================= KEYSET FEED =================
+    // Newest first; pass nextCursor back as ?after= for the next page
+    @GetMapping(value = "/feed", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CarCursorPage<Car> getFeed(@RequestParam(required = false) String condition,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(defaultValue = "20") int limit,
+                                      @RequestParam(required = false) String fields) {
+        return carRepository.findApprovedPage(condition, after, limit, CarFields.parse(fields));
+    }
+
+    // Accept: application/x-ndjson -> every remaining car, one JSON document per line
+    @GetMapping(value = "/feed", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamFeed(@RequestParam(required = false) String condition,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(required = false) String fields) {
+        CarFields projection = CarFields.parse(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(ndjsonWriter.write(() -> carRepository.streamApproved(condition, after, projection), car -> car));
+    }
+
+    // ================= DELTA SYNC =================
+    // Cars added to / changed in / removed from the catalog after ?since= (0 = everything);
+    // pass the returned version as the next since, again right away while hasMore.
+    // Safe with several nodes: it stops below writes still in flight anywhere (CatalogSequence)
+    @GetMapping("/changes")
+    public CatalogChanges changes(@RequestParam(defaultValue = "0") long since,
+                                  @RequestParam(defaultValue = "500") int limit,
+                                  @RequestParam(required = false) String fields) {
+        return catalogSyncService.changesSince(since, limit, CarFields.parse(fields));
+    }
+
     // ================= BRAND FILTER =================
 @GetMapping("/brand/{brand}")
-public List<Car> getCarsByBrand(@PathVariable String brand) {
-    return carRepository.findByBrandRegexAndApproved(brand.trim());
+public List<Car> getCarsByBrand(@PathVariable String brand,
+                               @RequestParam(required = false) String fields) {
+    return carCatalogService.findApprovedByBrand(brand.trim(), CarFields.parse(fields));
 }
 
 
 @GetMapping("/{id}")
 public ResponseEntity<Car> getCarById(@PathVariable String id) {
-    return carRepository.findById(id)
-        .filter(Car::getApproved)
+    return carCatalogService.findApprovedById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
 }
@@ -97,20 +224,29 @@ public ResponseEntity<Car> getCarById(@PathVariable String id) {
     // ================= BASIC ADD =================
     @PostMapping("/add-basic")
     public ResponseEntity<?> addCarBasic(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
             @RequestParam("image") MultipartFile image,
-            @RequestParam("certificate") MultipartFile certificate,
+            @RequestParam(value = "certificate", required = false) MultipartFile certificate,
+            @RequestParam(required = false) String certificateUploadId,
             @ModelAttribute Car car
     ) throws IOException {
 
-        // ✅ STRING ONLY (Base64)
+        // moderation needs the certificate: a file, or a finished /api/uploads session
+        if ((certificate == null || certificate.isEmpty())
+                && (certificateUploadId == null || certificateUploadId.isBlank())) {
+            return ResponseEntity.badRequest().body("Certificate is required");
+        }
+
+        // ✅ raw binary in GridFS, car keeps the reference
       if (image != null && !image.isEmpty()) {
-    car.setImage(Base64.getEncoder().encodeToString(image.getBytes()));
+    car.setImageId(blobStore.storeMedia(image));
 }
 
-       car.setCertificate(certificate.getBytes());
+        car.setCertificateId(storeCertificate(certificate, certificateUploadId, authHeader));
 
         car.setApproved(false);
         carRepository.save(car);
+        catalogEvents.publish(CarCatalogEvent.of(CarCatalogEvent.Type.ADDED, car));
 
         return ResponseEntity.ok(car);
     }
@@ -221,91 +357,86 @@ public ResponseEntity<?> addCar(
         @RequestParam String sellerType,   // 🔥 USER or SHOWROOM
         @RequestParam(required = false) List<String> features,
         @RequestParam MultipartFile image,
-        @RequestParam(required = false) MultipartFile certificate
+        @RequestParam(required = false) MultipartFile certificate,
+        @RequestParam(required = false) String certificateUploadId   // finished /api/uploads session
 ) {
-    try {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(401).body("Missing token");
-        }
-
-        String token = authHeader.substring(7);
-        String sellerEmail;
-
-        // ========= USED CAR (USER) =========
-        if (sellerType.equalsIgnoreCase("USER")) {
-
-            sellerEmail = jwtUtil.extractUsername(token);
-
-            Car car = new Car();
-            car.setTitle(title);
-            car.setBrand(brand.trim().toUpperCase());
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        return ResponseEntity.status(401).body("Missing token");
+    }
+    if (!sellerType.equalsIgnoreCase("USER") && !sellerType.equalsIgnoreCase("SHOWROOM")) {
+        return ResponseEntity.badRequest().body("Invalid seller type");
+    }
 
-            car.setBodyType(bodyType);
-            car.setModel(model);
-            car.setYear(year);
-            car.setFuelType(fuelType);
-            car.setMileage(mileage);
-            car.setEngineCapacity(engineCapacity);
-            car.setPrice(price);
-            car.setDescription(description);
-            car.setCondition("Used");
-            car.setExteriorColor(exteriorColor);
-            car.setSellerType("USER");
-            car.setSellerEmail(sellerEmail);
-            car.setApproved(false);
+    String token = authHeader.substring(7);
 
-            car.setImage(Base64.getEncoder().encodeToString(image.getBytes()));
+    // cheap seller checks now, so a 202 only leaves storage to fail
+    if (sellerType.equalsIgnoreCase("USER")) {
+        try {
+            jwtUtil.extractUsername(token);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token");
+        }
+    } else {
+        String showroomEmail = token.replace("dummy-token-", "").trim().toLowerCase();
+        if (showroomDirectory.byEmail(showroomEmail).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Showroom not found");
+        }
+    }
 
-            if (certificate != null && !certificate.isEmpty()) {
-                car.setCertificate(certificate.getBytes());
-            }
+    // seller, condition and media are filled in by the submission workers
+    Car car = new Car();
+    car.setTitle(title);
+    car.setBrand(brand);
+    car.setBodyType(bodyType);
+    car.setModel(model);
+    car.setYear(year);
+    car.setFuelType(fuelType);
+    car.setMileage(mileage);
+    car.setEngineCapacity(engineCapacity);
+    car.setPrice(price);
+    car.setDescription(description);
+    car.setExteriorColor(exteriorColor);
+    car.setFeatures(features);
+
+    // ✅ 202 right away; poll the Location for the outcome
+    return carSubmissionService.submit(token, sellerType, car, image, certificate, certificateUploadId)
+            .<ResponseEntity<?>>map(submission -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/cars/submissions/" + submission.getId()))
+                    .body(new SubmissionStatus(submission)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Too many submissions in progress, retry shortly"));
+}
 
-            car.setFeatures(features);
+    // ================= SUBMISSION STATUS =================
+    // QUEUED -> PROCESSING -> DONE (carId) | FAILED (error)
+    @GetMapping("/submissions/{id}")
+    public SubmissionStatus submissionStatus(@PathVariable String id) {
+        return new SubmissionStatus(carSubmissionService.status(id));
+    }
 
-            return ResponseEntity.ok(carRepository.save(car));
+    // Certificate from this request, or from a finished resumable upload the caller started
+    private String storeCertificate(MultipartFile certificate, String certificateUploadId, String authHeader) {
+        if (certificateUploadId != null && !certificateUploadId.isBlank()) {
+            return resumableUploadService.claim(certificateUploadId, uploader(authHeader));
         }
-
-        // ========= NEW CAR (SHOWROOM) =========
-        else if (sellerType.equalsIgnoreCase("SHOWROOM")) {
-
-            sellerEmail = token.replace("dummy-token-", "").trim().toLowerCase();
-
-            Showroom showroom = showroomRepository.findByEmail(sellerEmail)
-                    .orElseThrow(() -> new RuntimeException("Showroom not found"));
-
-            Car car = new Car();
-            car.setTitle(title);
-            car.setBrand(brand);
-            car.setBodyType(bodyType);
-            car.setModel(model);
-            car.setYear(year);
-            car.setFuelType(fuelType);
-            car.setMileage(mileage);
-            car.setEngineCapacity(engineCapacity);
-            car.setPrice(price);
-            car.setDescription(description);
-            car.setCondition("New");
-            car.setExteriorColor(exteriorColor);
-            car.setSellerType("SHOWROOM");
-            car.setSellerEmail(sellerEmail);
-            car.setShowroomId(showroom.getId());
-            car.setShowroomEmail(showroom.getEmail());
-            car.setApproved(false);
-
-            car.setImage(Base64.getEncoder().encodeToString(image.getBytes()));
-            car.setFeatures(features);
-
-            return ResponseEntity.ok(carRepository.save(car));
+        if (certificate == null || certificate.isEmpty()) {
+            return null;
         }
-
-        return ResponseEntity.badRequest().body("Invalid seller type");
-
-    } catch (Exception e) {
-        e.printStackTrace();
-        return ResponseEntity.status(500).body("Upload failed");
+        return blobStore.storePrivate(certificate);
     }
-}
 
+    private String uploader(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to attach an uploaded certificate");
+        }
+        try {
+            return jwtUtil.extractUsername(authHeader.substring(7));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+    }
 
     // ================= ADMIN ENDPOINTS =================
 
@@ -315,32 +446,46 @@ public ResponseEntity<?> addCar(
  @GetMapping("/contact/{carId}")
 public ResponseEntity<?> getShowroomContact(@PathVariable String carId) {
 
-    Optional<Car> carOpt = carRepository.findById(carId);
-    if (carOpt.isEmpty()) {
+    // showroomId only, the showroom itself comes from the in-memory directory
+    List<Car> refs = carRepository.findShowroomRefs(List.of(carId));
+    if (refs.isEmpty()) {
         return ResponseEntity.status(404).body("Car not found");
     }
 
-    Car car = carOpt.get();
+    Car car = refs.get(0);
 
     if (car.getShowroomId() == null) {
         return ResponseEntity.status(404).body("Showroom ID missing in car");
     }
 
-    Optional<Showroom> showroomOpt =
-            showroomRepository.findById(car.getShowroomId());
+    Optional<ShowroomDirectory.Entry> showroom = showroomDirectory.byId(car.getShowroomId());
 
-    if (showroomOpt.isEmpty()) {
+    if (showroom.isEmpty()) {
         return ResponseEntity.status(404).body("Showroom not found");
     }
 
-    Showroom showroom = showroomOpt.get();
+    return ResponseEntity.ok(showroom.get().toContact());
+}
 
-    ShowroomDTO dto = new ShowroomDTO();
-    dto.setName(showroom.getName());
-    dto.setEmail(showroom.getEmail());
-    dto.setPhone(showroom.getPhone());
-    dto.setAddress(showroom.getAddress());
+    // 🔹 Contacts for many cars at once: ?ids=a,b,c -> {carId: contact}
+    // One projected $in on the cars, showrooms from the directory; unknown cars are left out
+    @GetMapping("/contacts")
+    public Map<String, ShowroomDTO> getShowroomContacts(@RequestParam List<String> ids) {
+        if (ids.size() > MAX_CONTACT_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_CONTACT_IDS + " ids");
+        }
 
-    return ResponseEntity.ok(dto);
-}
+        Map<String, String> showroomOfCar = new HashMap<>();
+        for (Car car : carRepository.findShowroomRefs(ids)) {
+            if (car.getShowroomId() != null) showroomOfCar.put(car.getId(), car.getShowroomId());
+        }
+        Map<String, ShowroomDirectory.Entry> showrooms = showroomDirectory.byIds(showroomOfCar.values());
+
+        Map<String, ShowroomDTO> contacts = new LinkedHashMap<>();
+        for (String id : ids) {
+            ShowroomDirectory.Entry showroom = showrooms.get(showroomOfCar.get(id));
+            if (showroom != null) contacts.put(id, showroom.toContact());
+        }
+        return contacts;
+    }
 }
@@ -2,6 +2,10 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.FavoriteRequest;
 import com.example.demo.dto.FavoriteSummary;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.service.FavoriteRecommender;
 import com.example.demo.service.FavoriteService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +23,12 @@ public class FavoriteController {
     @Autowired
     private FavoriteService favoriteService;
 
+    @Autowired
+    private FavoriteRecommender favoriteRecommender;
+
+    @Autowired
+    private CarRepository carRepository;
+
     // ✅ OPTION B – return minimal data
     @GetMapping("/{email}")
     public ResponseEntity<List<FavoriteSummary>> getFavorites(@PathVariable String email) {
@@ -58,4 +68,22 @@ public class FavoriteController {
         favoriteService.remove(email, carId);
         return ResponseEntity.ok().build();
     }
+
+    // People who saved this car also saved
+    @GetMapping("/also-saved/{carId}")
+    public List<Car> alsoSaved(@PathVariable String carId,
+                               @RequestParam(defaultValue = "6") int limit,
+                               @RequestParam(required = false) String fields) {
+        List<String> ids = favoriteRecommender.alsoSaved(carId, limit);
+        return carRepository.findApprovedInOrder(ids, CarFields.parse(fields));
+    }
+
+    // Picks for a user from what others saved alongside their favourites
+    @GetMapping("/{email}/recommendations")
+    public List<Car> recommendations(@PathVariable String email,
+                                     @RequestParam(defaultValue = "6") int limit,
+                                     @RequestParam(required = false) String fields) {
+        List<String> ids = favoriteRecommender.forUser(email, limit);
+        return carRepository.findApprovedInOrder(ids, CarFields.parse(fields));
+    }
 }
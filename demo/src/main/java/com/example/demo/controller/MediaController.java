@@ -0,0 +1,104 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.BlobStore;
+import com.example.demo.service.FileStorageService;
+import com.example.demo.service.ImageVariantService;
+import com.example.demo.service.ImageVariantService.Variant;
+import com.example.demo.service.MediaTypes;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/media")
+@CrossOrigin(origins = {
+    "http://localhost:5173",
+    "http://localhost:5174"
+})
+public class MediaController {
+
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final BlobStore blobStore;
+
+    public MediaController(FileStorageService fileStorageService,
+                           ImageVariantService imageVariantService,
+                           BlobStore blobStore) {
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.blobStore = blobStore;
+    }
+
+    /*
+     * Streams a stored file straight from GridFS. The id is a content hash
+     * (see BlobStore) or, for older uploads, a GridFS file id.
+     * Only JPEG, PNG and WebP are served inline (BlobStore stores the
+     * sniffed type); older files of any other type come as an attachment.
+     * Media is immutable, so the id (plus the size asked for) is a strong
+     * ETag, and a client that already holds it gets 304 before GridFS is
+     * queried. Range requests are answered with 206 partial content by
+     * Spring's Resource handling.
+     *
+     * ?size=thumb|card|detail picks a resized JPEG variant. While the variant
+     * is still being generated the original is served, tagged as the
+     * original and with a short cache lifetime, so clients pick up the
+     * variant once it exists.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getMedia(@PathVariable String id,
+                                             @RequestParam(required = false) String size,
+                                             WebRequest request) {
+
+        Optional<Variant> variant = Variant.parse(size);
+        String originalTag = "\"" + id + "\"";
+        String etag = variant.map(v -> "\"" + id + "-" + v.key() + "\"").orElse(originalTag);
+
+        if (request.checkNotModified(etag)) {
+            return null; // 304, headers already written
+        }
+
+        Optional<GridFSFile> fileOpt = blobStore.findPublicFile(id);
+        if (fileOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GridFSFile file = fileOpt.get();
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        if (variant.isPresent()) {
+            Optional<GridFSFile> resized =
+                    imageVariantService.findVariant(file.getObjectId().toHexString(), variant.get());
+            if (resized.isPresent()) {
+                file = resized.get();
+            } else {
+                etag = originalTag;
+                cacheControl = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+            }
+        }
+
+        GridFsResource resource = fileStorageService.getResource(file);
+
+        // only verified image types render in the browser; anything else is a download
+        MediaType type = MediaTypes.servable(resource.getContentType(), MediaTypes.IMAGES);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(type);
+        if (MediaType.APPLICATION_OCTET_STREAM.equals(type)) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(file.getFilename(), StandardCharsets.UTF_8).build().toString());
+        }
+        return response.body(resource);
+    }
+}
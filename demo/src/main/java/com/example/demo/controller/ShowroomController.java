@@ -4,6 +4,7 @@ import com.example.demo.dto.ShowroomDTO;
 import com.example.demo.model.Showroom;
 import com.example.demo.repository.ShowroomRepository;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.service.ShowroomDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -23,6 +24,9 @@ public class ShowroomController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ShowroomDirectory showroomDirectory;
+
     private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     // =========================
@@ -45,7 +49,7 @@ public class ShowroomController {
         showroom.setAddress(dto.getAddress());
         showroom.setPassword(passwordEncoder.encode(dto.getPassword()));
 
-        showroomRepository.save(showroom);
+        showroomDirectory.put(showroomRepository.save(showroom));
         return ResponseEntity.ok(Map.of("message", "Signup successful"));
     }
 
@@ -85,7 +89,7 @@ public class ShowroomController {
             showroom.setName(dto.getName());
             showroom.setEmail(dto.getEmail().trim().toLowerCase());
             showroom.setPassword(passwordEncoder.encode("GOOGLE_USER"));
-            showroomRepository.save(showroom);
+            showroomDirectory.put(showroomRepository.save(showroom));
         } else {
             showroom = opt.get();
         }
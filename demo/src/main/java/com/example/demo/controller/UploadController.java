@@ -0,0 +1,74 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.UploadStartRequest;
+import com.example.demo.dto.UploadStatus;
+import com.example.demo.model.UploadSession;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+// Resumable chunked uploads, see ResumableUploadService for the protocol
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "http://localhost:5173")
+public class UploadController {
+
+    private final ResumableUploadService uploadService;
+    private final JwtUtil jwtUtil;
+
+    public UploadController(ResumableUploadService uploadService, JwtUtil jwtUtil) {
+        this.uploadService = uploadService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @PostMapping
+    public UploadStatus start(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                              @RequestBody UploadStartRequest request) {
+        return status(uploadService.start(owner(authHeader),
+                request.getFilename(), request.getContentType(), request.getSize()));
+    }
+
+    @GetMapping("/{id}")
+    public UploadStatus status(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                               @PathVariable String id) {
+        return status(uploadService.status(id, owner(authHeader)));
+    }
+
+    // The body is streamed to storage as it arrives, never buffered whole
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public UploadStatus appendChunk(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @PathVariable String id,
+                                    @RequestParam long offset,
+                                    HttpServletRequest request) throws IOException {
+        return status(uploadService.append(id, owner(authHeader), offset,
+                request.getContentLengthLong(), request.getInputStream()));
+    }
+
+    @PostMapping("/{id}/complete")
+    public UploadStatus complete(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                 @PathVariable String id) {
+        return status(uploadService.complete(id, owner(authHeader)));
+    }
+
+    // Uploads belong to the signed-in user (certificates only come with used-car listings)
+    private String owner(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing token");
+        }
+        try {
+            return jwtUtil.extractUsername(authHeader.substring(7));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+    }
+
+    private UploadStatus status(UploadSession session) {
+        return new UploadStatus(session, uploadService.getChunkSize());
+    }
+}
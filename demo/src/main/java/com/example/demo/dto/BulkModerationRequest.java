@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BulkModerationRequest {
+
+    private List<String> ids;
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Per-id outcomes of a bulk approve/reject, in request order.
+ * changed counts the cars this request actually approved or removed.
+ */
+public class BulkModerationResult {
+
+    private final int requested;
+    private final int changed;
+    private final List<ModerationOutcome> results;
+
+    public BulkModerationResult(int changed, List<ModerationOutcome> results) {
+        this.requested = results.size();
+        this.changed = changed;
+        this.results = results;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+
+    public List<ModerationOutcome> getResults() {
+        return results;
+    }
+}
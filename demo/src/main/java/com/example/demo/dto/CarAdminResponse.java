@@ -1,5 +1,7 @@
 package com.example.demo.dto;
 
+import java.time.Instant;
+
 public class CarAdminResponse {
 
     private String id;
@@ -14,9 +16,11 @@ public class CarAdminResponse {
    
     private String description;
 
-    // IMPORTANT: Base64 strings
-    private String image;
-    private String certificate;
+    // Both are streamed on demand: image from /api/media, certificate from
+    // /api/admin/cars/{id}/certificate (null when none was uploaded)
+    private String imageUrl;
+    private String certificateUrl;
+    private Instant createdAt;
 
     // ✅ GETTERS & SETTERS
 
@@ -94,17 +98,24 @@ public class CarAdminResponse {
         this.description = description;
     }
 
-    public String getImage() {
-        return image;
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getCertificateUrl() {
+        return certificateUrl;
     }
-    public void setImage(String image) {
-        this.image = image;
+    public void setCertificateUrl(String certificateUrl) {
+        this.certificateUrl = certificateUrl;
     }
 
-    public String getCertificate() {
-        return certificate;
+    public Instant getCreatedAt() {
+        return createdAt;
     }
-    public void setCertificate(String certificate) {
-        this.certificate = certificate;
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
     }
 }
@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One keyset page. Pass nextCursor back as ?after= to get the next page;
+ * it is null on the last page.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CarCursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public CarCursorPage() {}
+
+    public CarCursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts for the filter panels, returned by GET /api/cars/facets.
+ *
+ * Each facet is counted with every other filter applied but its own, so the
+ * panel still shows the alternatives to what is already selected.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CarFacets {
+
+    private long total;   // cars matching every filter
+    private List<FacetCount> brands = new ArrayList<>();
+    private List<FacetCount> fuelTypes = new ArrayList<>();
+    private List<FacetCount> bodyTypes = new ArrayList<>();
+    private List<FacetCount> years = new ArrayList<>();
+    private List<HistogramBucket> price = new ArrayList<>();
+    private List<HistogramBucket> mileage = new ArrayList<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<FacetCount> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(List<FacetCount> brands) {
+        this.brands = brands;
+    }
+
+    public List<FacetCount> getFuelTypes() {
+        return fuelTypes;
+    }
+
+    public void setFuelTypes(List<FacetCount> fuelTypes) {
+        this.fuelTypes = fuelTypes;
+    }
+
+    public List<FacetCount> getBodyTypes() {
+        return bodyTypes;
+    }
+
+    public void setBodyTypes(List<FacetCount> bodyTypes) {
+        this.bodyTypes = bodyTypes;
+    }
+
+    public List<FacetCount> getYears() {
+        return years;
+    }
+
+    public void setYears(List<FacetCount> years) {
+        this.years = years;
+    }
+
+    public List<HistogramBucket> getPrice() {
+        return price;
+    }
+
+    public void setPrice(List<HistogramBucket> price) {
+        this.price = price;
+    }
+
+    public List<HistogramBucket> getMileage() {
+        return mileage;
+    }
+
+    public void setMileage(List<HistogramBucket> mileage) {
+        this.mileage = mileage;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One page of a catalog query plus the total number of matches.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CarPage<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private long total;
+
+    public CarPage() {}
+
+    public CarPage(List<T> content, int page, int size, long total) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getTotalPages() {
+        return size == 0 ? 0 : (int) ((total + size - 1) / size);
+    }
+}
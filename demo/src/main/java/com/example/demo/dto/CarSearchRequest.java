@@ -0,0 +1,167 @@
+package com.example.demo.dto;
+
+import com.example.demo.service.BrandNormalizer;
+
+/**
+ * Query parameters accepted by GET /api/cars/search.
+ * Every predicate is optional; null means "no filter".
+ */
+public class CarSearchRequest {
+
+    private String condition;   // New | Used
+    private String brand;
+    private String fuelType;
+    private String bodyType;
+
+    private Integer minYear;
+    private Integer maxYear;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minMileage;
+    private Integer maxMileage;
+
+    // price_asc | price_desc | year_asc | year_desc | mileage_asc | mileage_desc
+    private String sort;
+    private int page = 0;
+    private int size = 20;
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getFuelType() {
+        return fuelType;
+    }
+
+    public void setFuelType(String fuelType) {
+        this.fuelType = fuelType;
+    }
+
+    public String getBodyType() {
+        return bodyType;
+    }
+
+    public void setBodyType(String bodyType) {
+        this.bodyType = bodyType;
+    }
+
+    public Integer getMinYear() {
+        return minYear;
+    }
+
+    public void setMinYear(Integer minYear) {
+        this.minYear = minYear;
+    }
+
+    public Integer getMaxYear() {
+        return maxYear;
+    }
+
+    public void setMaxYear(Integer maxYear) {
+        this.maxYear = maxYear;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getMinMileage() {
+        return minMileage;
+    }
+
+    public void setMinMileage(Integer minMileage) {
+        this.minMileage = minMileage;
+    }
+
+    public Integer getMaxMileage() {
+        return maxMileage;
+    }
+
+    public void setMaxMileage(Integer maxMileage) {
+        this.maxMileage = maxMileage;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    // Stable signature of every predicate, used as a cache key
+    public String cacheKey() {
+        return String.join("|", filterKey(), lower(sort), String.valueOf(page), String.valueOf(size));
+    }
+
+    // Same, without sort and paging (facet counts don't depend on them)
+    public String filterKey() {
+        return String.join("|",
+                String.valueOf(condition), String.valueOf(BrandNormalizer.key(brand)), lower(fuelType), lower(bodyType),
+                String.valueOf(minYear), String.valueOf(maxYear),
+                String.valueOf(minPrice), String.valueOf(maxPrice),
+                String.valueOf(minMileage), String.valueOf(maxMileage));
+    }
+
+    public CarSearchRequest copy() {
+        CarSearchRequest copy = new CarSearchRequest();
+        copy.condition = condition;
+        copy.brand = brand;
+        copy.fuelType = fuelType;
+        copy.bodyType = bodyType;
+        copy.minYear = minYear;
+        copy.maxYear = maxYear;
+        copy.minPrice = minPrice;
+        copy.maxPrice = maxPrice;
+        copy.minMileage = minMileage;
+        copy.maxMileage = maxMileage;
+        copy.sort = sort;
+        copy.page = page;
+        copy.size = size;
+        return copy;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "null" : value.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Car;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/cars/changes.
+ *
+ * Apply upserts, then removals, then store version and pass it as ?since=
+ * next time. hasMore = ask again right away. reset = since is older than
+ * the oldest kept tombstone: drop the local copy and sync again from 0.
+ */
+public class CatalogChanges {
+
+    private long since;
+    private long version;
+    private boolean hasMore;
+    private boolean reset;
+    private List<Car> upserts;
+    private List<String> removed;
+
+    public CatalogChanges() {}
+
+    public CatalogChanges(long since, long version, boolean hasMore, List<Car> upserts, List<String> removed) {
+        this.since = since;
+        this.version = version;
+        this.hasMore = hasMore;
+        this.upserts = upserts;
+        this.removed = removed;
+    }
+
+    public static CatalogChanges reset(long since) {
+        CatalogChanges changes = new CatalogChanges(since, 0, false, List.of(), List.of());
+        changes.setReset(true);
+        return changes;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    public List<Car> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<Car> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+}
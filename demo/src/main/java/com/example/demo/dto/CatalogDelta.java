@@ -0,0 +1,49 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Car;
+
+import java.util.List;
+
+/**
+ * One catalog change as pushed to STOMP subscribers.
+ * cars holds the card fields of approved/updated cars that are visible
+ * in the catalog; it is empty for REJECTED and ADDED.
+ */
+public class CatalogDelta {
+
+    private String type;
+    private List<String> ids;
+    private List<Car> cars;
+
+    public CatalogDelta() {}
+
+    public CatalogDelta(String type, List<String> ids, List<Car> cars) {
+        this.type = type;
+        this.ids = ids;
+        this.cars = cars;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+
+    public List<Car> getCars() {
+        return cars;
+    }
+
+    public void setCars(List<Car> cars) {
+        this.cars = cars;
+    }
+}
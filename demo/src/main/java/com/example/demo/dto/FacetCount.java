@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+/**
+ * One value of a filter facet ("Diesel", "2021") and how many cars have it.
+ */
+public class FacetCount {
+
+    private String value;
+    private long count;
+
+    public FacetCount() {}
+
+    public FacetCount(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+/**
+ * Cars with min <= value < max; max is null for the open-ended last bucket.
+ */
+public class HistogramBucket {
+
+    private double min;
+    private Double max;
+    private long count;
+
+    public HistogramBucket() {}
+
+    public HistogramBucket(double min, Double max, long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
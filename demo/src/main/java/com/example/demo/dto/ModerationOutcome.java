@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+/**
+ * What a moderation batch did to one car.
+ */
+public class ModerationOutcome {
+
+    public enum Status {
+        APPROVED,
+        ALREADY_APPROVED,
+        REJECTED,
+        NOT_FOUND
+    }
+
+    private final String id;
+    private final Status status;
+
+    public ModerationOutcome(String id, Status status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.CarSubmission;
+
+import java.time.Instant;
+
+/**
+ * Where an asynchronous car submission is. Poll until status is DONE
+ * (carId is set) or FAILED (error says why).
+ */
+public class SubmissionStatus {
+
+    private final String submissionId;
+    private final CarSubmission.Status status;
+    private final String carId;
+    private final String error;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+
+    public SubmissionStatus(CarSubmission submission) {
+        this.submissionId = submission.getId();
+        this.status = submission.getStatus();
+        this.carId = submission.getCarId();
+        this.error = submission.getError();
+        this.createdAt = submission.getCreatedAt();
+        this.updatedAt = submission.getUpdatedAt();
+    }
+
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
+    public CarSubmission.Status getStatus() {
+        return status;
+    }
+
+    public String getCarId() {
+        return carId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
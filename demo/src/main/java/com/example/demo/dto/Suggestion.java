@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+public class Suggestion {
+
+    private final String text;
+    private final String type;   // BRAND | MODEL | BRAND_MODEL
+    private final int count;     // approved cars behind this suggestion
+
+    public Suggestion(String text, String type, int count) {
+        this.text = text;
+        this.type = type;
+        this.count = count;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.UploadSession;
+
+/**
+ * Progress of a resumable upload. The next chunk goes at offset = received.
+ */
+public class UploadStatus {
+
+    private final String uploadId;
+    private final long size;
+    private final long received;
+    private final long chunkSize;
+    private final boolean complete;
+
+    public UploadStatus(UploadSession session, long chunkSize) {
+        this.uploadId = session.getId();
+        this.size = session.getSize();
+        this.received = session.getReceived();
+        this.chunkSize = chunkSize;
+        this.complete = session.getFileId() != null;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Car;
+
+import java.util.List;
+
+/**
+ * Published whenever the set of cars or their contents change, through
+ * {@link CatalogEventBus}. Caches, in-memory indexes and the STOMP push
+ * listen for it with @EventListener.
+ */
+public class CarCatalogEvent {
+
+    public enum Type {
+        ADDED,      // submitted, waiting for approval
+        APPROVED,   // now visible in the catalog
+        REJECTED,   // removed
+        UPDATED     // fields changed
+    }
+
+    private final Type type;
+    private final List<String> carIds;
+
+    // Snapshots of the affected cars when the publisher has them (may be empty)
+    private final List<Car> cars;
+
+    public CarCatalogEvent(Type type, List<String> carIds, List<Car> cars) {
+        this.type = type;
+        this.carIds = List.copyOf(carIds);
+        this.cars = cars == null ? List.of() : List.copyOf(cars);
+    }
+
+    public static CarCatalogEvent of(Type type, Car car) {
+        return new CarCatalogEvent(type, List.of(car.getId()), List.of(car));
+    }
+
+    public static CarCatalogEvent of(Type type, String carId) {
+        return new CarCatalogEvent(type, List.of(carId), List.of());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<String> getCarIds() {
+        return carIds;
+    }
+
+    public List<Car> getCars() {
+        return cars;
+    }
+
+    @Override
+    public String toString() {
+        return "CarCatalogEvent{" + type + " " + carIds + "}";
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.event;
+
+/**
+ * Where writers announce catalog changes (add, approve, reject).
+ *
+ * Listeners do not depend on the bus: they keep using
+ * {@code @EventListener(CarCatalogEvent)}. The bus decides how an event
+ * reaches them, see {@link InProcessCatalogEventBus} (single node, tests)
+ * and {@link ChangeStreamCatalogEventBus} (every node, from Mongo).
+ * Selected by cartrizo.catalog.events.source = local | change-stream.
+ */
+public interface CatalogEventBus {
+
+    // Call after the write has succeeded
+    void publish(CarCatalogEvent event);
+}
@@ -0,0 +1,215 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Car;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog events read from a change stream on the cars collection, so
+ * every node sees every write, whichever node made it.
+ *
+ * publish() does nothing: the write itself is the event, and this node
+ * hears about it from the stream like all the others. One watcher thread
+ * per node turns the stream into CarCatalogEvents for the local listeners.
+ * Changes that arrive together (an updateMulti of a bulk approval, say)
+ * are grouped into one event per run of the same type.
+ *
+ * Only operationType, documentKey and updateDescription are read, never
+ * the documents. The stream starts at the cluster time this node started
+ * (so an open that fails at first misses nothing), and after a failure it
+ * resumes from the last token it handled, so nothing is missed unless the
+ * oplog has rolled past it. A listener that throws is counted
+ * (cartrizo.catalog.events.listener.failures) and skipped; the stream
+ * moves on rather than retrying the same change forever.
+ * Change streams need a replica set (Atlas always is one).
+ */
+public class ChangeStreamCatalogEventBus implements CatalogEventBus, SmartLifecycle {
+
+    private static final int MAX_BATCH = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration retryDelay;
+    private final Counter listenerFailures;
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    // set before the watcher starts, then watcher thread only: where the first open starts, then where to resume
+    private BsonTimestamp startedAt;
+    private BsonDocument resumeToken;
+
+    public ChangeStreamCatalogEventBus(MongoTemplate mongoTemplate,
+                                       ApplicationEventPublisher eventPublisher,
+                                       MeterRegistry meterRegistry,
+                                       Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retryDelay = retryDelay;
+        this.listenerFailures = Counter.builder("cartrizo.catalog.events.listener.failures")
+                .description("Catalog events from the change stream that a listener failed on")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(CarCatalogEvent event) {
+        // delivered by the change stream
+    }
+
+    // ================= LIFECYCLE =================
+    @Override
+    public void start() {
+        running = true;
+        startedAt = new BsonTimestamp((int) (System.currentTimeMillis() / 1000), 0);
+        watcher = new Thread(this::watch, "catalog-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ================= WATCH =================
+    private void watch() {
+        String collection = mongoTemplate.getCollectionName(Car.class);
+
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(collection)) {
+                System.out.println("📡 Following " + collection + " change stream");
+
+                while (running) {
+                    // waits up to maxAwaitTime, then returns null
+                    ChangeStreamDocument<Document> first = cursor.tryNext();
+                    if (first == null) {
+                        // an idle stream still moves its token forward
+                        remember(cursor.getResumeToken());
+                        continue;
+                    }
+
+                    // plus whatever already arrived in the same batch
+                    List<ChangeStreamDocument<Document>> changes = new ArrayList<>();
+                    changes.add(first);
+                    while (changes.size() < MAX_BATCH && cursor.available() > 0) {
+                        changes.add(cursor.next());
+                    }
+
+                    dispatch(changes);
+                    remember(cursor.getResumeToken());
+                }
+            } catch (Exception e) {
+                if (!running) break;
+                System.out.println("⚠️ Catalog change stream failed, retrying in "
+                        + retryDelay.toSeconds() + "s: " + e.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(String collection) {
+        var stream = mongoTemplate.getCollection(collection)
+                .watch(List.of(
+                        Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete")),
+                        Aggregates.project(Projections.include("operationType", "documentKey", "updateDescription"))
+                ))
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        stream = resumeToken != null
+                ? stream.resumeAfter(resumeToken)
+                : stream.startAtOperationTime(startedAt);
+        return stream.cursor();
+    }
+
+    private void remember(BsonDocument token) {
+        if (token != null) resumeToken = token;
+    }
+
+    // Consecutive changes of the same type become one event
+    private void dispatch(List<ChangeStreamDocument<Document>> changes) {
+        CarCatalogEvent.Type runType = null;
+        List<String> runIds = new ArrayList<>();
+
+        for (ChangeStreamDocument<Document> change : changes) {
+            CarCatalogEvent.Type type = typeOf(change);
+            String id = idOf(change.getDocumentKey());
+            if (type == null || id == null) continue;
+
+            if (type != runType && !runIds.isEmpty()) {
+                deliver(new CarCatalogEvent(runType, runIds, List.of()));
+                runIds = new ArrayList<>();
+            }
+            runType = type;
+            runIds.add(id);
+        }
+        if (!runIds.isEmpty()) {
+            deliver(new CarCatalogEvent(runType, runIds, List.of()));
+        }
+    }
+
+    // A failing listener costs this event, not the stream
+    private void deliver(CarCatalogEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            listenerFailures.increment();
+            System.out.println("⚠️ Catalog listener failed on " + event + ", skipping: " + e.getMessage());
+        }
+    }
+
+    static CarCatalogEvent.Type typeOf(ChangeStreamDocument<Document> change) {
+        return switch (change.getOperationType()) {
+            case INSERT -> CarCatalogEvent.Type.ADDED;
+            case DELETE -> CarCatalogEvent.Type.REJECTED;
+            case REPLACE -> CarCatalogEvent.Type.UPDATED;
+            case UPDATE -> approvedBy(change.getUpdateDescription())
+                    ? CarCatalogEvent.Type.APPROVED
+                    : CarCatalogEvent.Type.UPDATED;
+            default -> null;
+        };
+    }
+
+    private static boolean approvedBy(UpdateDescription update) {
+        if (update == null || update.getUpdatedFields() == null) return false;
+        BsonValue approved = update.getUpdatedFields().get("approved");
+        return approved != null && approved.isBoolean() && approved.asBoolean().getValue();
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        if (documentKey == null) return null;
+        BsonValue id = documentKey.get("_id");
+        if (id == null) return null;
+        if (id.isObjectId()) return id.asObjectId().getValue().toHexString();
+        if (id.isString()) return id.asString().getValue();
+        return null;
+    }
+}
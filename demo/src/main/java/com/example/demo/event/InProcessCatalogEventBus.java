@@ -0,0 +1,22 @@
+package com.example.demo.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Hands events straight to this node's listeners, on the writer's thread.
+ * Other nodes only learn about the change through the shared cache
+ * invalidation channel.
+ */
+public class InProcessCatalogEventBus implements CatalogEventBus {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessCatalogEventBus(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(CarCatalogEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+}
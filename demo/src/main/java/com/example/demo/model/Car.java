@@ -1,11 +1,28 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.List;
 
 @Document(collection = "cars")
+@JsonInclude(JsonInclude.Include.NON_NULL) // projected-out fields are left out of the JSON
+@JsonIgnoreProperties(value = "imageUrl", allowGetters = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "brandKey_approved", def = "{'brandKey': 1, 'approved': 1}"),
+        // keyset paging on (createdAt, _id), with and without a condition filter
+        @CompoundIndex(name = "approved_createdAt_id", def = "{'approved': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "approved_condition_createdAt_id", def = "{'approved': 1, 'condition': 1, 'createdAt': -1, '_id': -1}"),
+        // /api/cars/changes range scan: approved cars with version > since
+        @CompoundIndex(name = "approved_version", def = "{'approved': 1, 'version': 1}")
+})
 public class Car {
 
     @Id
@@ -13,6 +30,7 @@ public class Car {
     private String sellerEmail;
     private String title;
     private String brand;
+    private String brandKey;   // canonical brand, see BrandNormalizer
     private String bodyType;
     private String model;
     private Integer year;
@@ -25,8 +43,8 @@ public class Car {
     private String condition;
     private String exteriorColor;
 
-    // Base64 main image
-    private String image;
+    // Main image: a BlobStore ref (content hash), served by /api/media/{imageId}
+    private String imageId;
 
     // 🔹 Seller / Approval
     private String sellerType;      // USER | SHOWROOM
@@ -34,10 +52,17 @@ public class Car {
     private String showroomEmail;   // showroom identifier
     private String showroomId; // save the showroom ID when adding a car
 
+    private Instant createdAt;  // set on first save, keyset paging order
+    private Long version;       // catalog sequence number, new on every write (see CatalogSequence)
 
 
+
+    // Ownership certificate: a private BlobStore ref, never served by /api/media
+    @JsonIgnore
+    private String certificateId;
+
     // 🔹 FILES (MongoDB stores byte[] directly)
-    private byte[] certificate;
+    private byte[] certificate;     // legacy, moved to certificateId by CatalogMigrations
     private byte[] image1;
     private byte[] image2;
 
@@ -78,6 +103,14 @@ public class Car {
         this.brand = brand;
     }
 
+    public String getBrandKey() {
+        return brandKey;
+    }
+
+    public void setBrandKey(String brandKey) {
+        this.brandKey = brandKey;
+    }
+
     public String getBodyType() {
         return bodyType;
     }
@@ -166,12 +199,18 @@ public class Car {
         this.exteriorColor = exteriorColor;
     }
 
-    public String getImage() {
-        return image;
+    public String getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(String imageId) {
+        this.imageId = imageId;
     }
 
-    public void setImage(String image) {
-        this.image = image;
+    // Derived for the API only, never persisted
+    @Transient
+    public String getImageUrl() {
+        return imageId == null ? null : "/api/media/" + imageId;
     }
 
     public String getSellerType() {
@@ -190,7 +229,14 @@ public class Car {
         this.approved = approved;
     }
 
-   
+    public String getCertificateId() {
+        return certificateId;
+    }
+
+    public void setCertificateId(String certificateId) {
+        this.certificateId = certificateId;
+    }
+
     public byte[] getCertificate() {
         return certificate;
     }
@@ -214,6 +260,18 @@ public class Car {
     public void setImage2(byte[] image2) {
         this.image2 = image2;
     }
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
     public String getShowroomId() {
         return showroomId;
     }
@@ -0,0 +1,87 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A car listing accepted by POST /api/cars/add and handed to
+ * CarSubmissionService's workers. Polled through /api/cars/submissions/{id}.
+ */
+@Document(collection = "car_submissions")
+public class CarSubmission {
+
+    public enum Status {
+        QUEUED, PROCESSING, DONE, FAILED
+    }
+
+    @Id
+    private String id;
+
+    private Status status;
+    private String sellerType;
+    private String carId;       // set once the car is saved (DONE)
+    private String error;       // why it FAILED, safe to show the seller
+
+    private Instant createdAt;
+    @Indexed
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getSellerType() {
+        return sellerType;
+    }
+
+    public void setSellerType(String sellerType) {
+        this.sellerType = sellerType;
+    }
+
+    public String getCarId() {
+        return carId;
+    }
+
+    public void setCarId(String carId) {
+        this.carId = carId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
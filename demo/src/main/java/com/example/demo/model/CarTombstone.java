@@ -0,0 +1,56 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Marks a car that was removed from the catalog (rejected), so delta-sync
+ * clients learn to drop it. The id is the removed car's id; version comes
+ * from the same sequence as Car.version. Purged after a retention period.
+ */
+@Document(collection = "car_tombstones")
+public class CarTombstone {
+
+    @Id
+    private String id;
+
+    @Indexed(name = "version")
+    private long version;
+
+    private Instant removedAt;
+
+    public CarTombstone() {}
+
+    public CarTombstone(String id, long version, Instant removedAt) {
+        this.id = id;
+        this.version = version;
+        this.removedAt = removedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getRemovedAt() {
+        return removedAt;
+    }
+
+    public void setRemovedAt(Instant removedAt) {
+        this.removedAt = removedAt;
+    }
+}
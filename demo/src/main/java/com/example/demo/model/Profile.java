@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "profiles")
@@ -18,7 +19,8 @@ public class Profile {
     private String pincode;
     private String address;
 
-    private String image; // Base64
+    private String image;   // legacy Base64, new uploads go to imageId
+    private String imageId; // GridFS, served by /api/media/{imageId}
 
     // getters & setters
     public String getId() { return id; }
@@ -50,4 +52,11 @@ public class Profile {
 
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
+
+    public String getImageId() { return imageId; }
+    public void setImageId(String imageId) { this.imageId = imageId; }
+
+    // Derived for the API only, never persisted
+    @Transient
+    public String getImageUrl() { return imageId == null ? null : "/api/media/" + imageId; }
 }
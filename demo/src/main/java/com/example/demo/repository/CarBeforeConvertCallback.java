@@ -0,0 +1,26 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Car;
+import com.example.demo.service.BrandNormalizer;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Fills derived fields on every Car write, whichever endpoint saved it.
+ * The catalog version is assigned by {@link CarRepositoryImpl#save}, which
+ * can release it when the write fails.
+ */
+@Component
+public class CarBeforeConvertCallback implements BeforeConvertCallback<Car> {
+
+    @Override
+    public Car onBeforeConvert(Car car, String collection) {
+        car.setBrandKey(BrandNormalizer.key(car.getBrand()));
+        if (car.getCreatedAt() == null) {
+            car.setCreatedAt(Instant.now());
+        }
+        return car;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Car;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position on (createdAt, _id).
+ * Encoded as base64url("epochMillis:id") so clients treat it as a token.
+ */
+public record CarCursor(Instant createdAt, String id) {
+
+    public static CarCursor of(Car car) {
+        return new CarCursor(car.getCreatedAt(), car.getId());
+    }
+
+    public static CarCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new CarCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))), raw.substring(sep + 1));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Rows strictly after this position in the given direction
+    public Criteria after(Sort.Direction direction) {
+        Object key = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        if (direction == Sort.Direction.DESC) {
+            return new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    Criteria.where("createdAt").is(createdAt).and("_id").lt(key));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").gt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").gt(key));
+    }
+
+    public static Sort sort(Sort.Direction direction) {
+        return Sort.by(direction, "createdAt").and(Sort.by(direction, "_id"));
+    }
+}
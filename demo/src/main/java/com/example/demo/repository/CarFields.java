@@ -0,0 +1,93 @@
+package com.example.demo.repository;
+
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset for car list endpoints (?fields=...).
+ *
+ * The value is either a named profile ("card", "full") or a comma separated
+ * list of Car properties. It is pushed down to Mongo as a field projection,
+ * so fields that are not requested are never read or serialized.
+ */
+public final class CarFields {
+
+    // Everything a listing card renders
+    private static final List<String> CARD = List.of(
+            "title", "brand", "model", "year", "price", "fuelType",
+            "bodyType", "mileage", "condition", "sellerType", "imageId"
+    );
+
+    // Properties a client may ask for by name
+    private static final Set<String> ALLOWED = Set.of(
+            "sellerEmail", "title", "brand", "bodyType", "model", "year",
+            "fuelType", "mileage", "engineCapacity", "price", "features",
+            "description", "condition", "exteriorColor", "imageId",
+            "sellerType", "approved", "showroomEmail", "showroomId"
+    );
+
+    public static final CarFields FULL = new CarFields(Collections.emptySet());
+    public static final CarFields CARD_PROFILE = new CarFields(new LinkedHashSet<>(CARD));
+
+    // empty = no projection
+    private final Set<String> include;
+
+    private CarFields(Set<String> include) {
+        this.include = Collections.unmodifiableSet(include);
+    }
+
+    public static CarFields parse(String fields) {
+        if (fields == null || fields.isBlank() || fields.equalsIgnoreCase("card")) {
+            return CARD_PROFILE;
+        }
+        if (fields.equalsIgnoreCase("full")) {
+            return FULL;
+        }
+
+        Set<String> include = new LinkedHashSet<>();
+        for (String name : Arrays.asList(fields.split(","))) {
+            String field = name.trim();
+            if (field.isEmpty() || field.equals("id")) continue;
+            if (!ALLOWED.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + field);
+            }
+            include.add(field);
+        }
+        return include.isEmpty() ? CARD_PROFILE : new CarFields(include);
+    }
+
+    // Server-side projections; not limited to what ?fields= may ask for
+    public static CarFields of(String... fields) {
+        return new CarFields(new LinkedHashSet<>(Arrays.asList(fields)));
+    }
+
+    public Query applyTo(Query query) {
+        if (!include.isEmpty()) {
+            Field projection = query.fields();
+            include.forEach(projection::include);
+        }
+        return query;
+    }
+
+    public boolean isFull() {
+        return include.isEmpty();
+    }
+
+    public Set<String> getInclude() {
+        return include;
+    }
+
+    // Stable string form, usable as part of a cache key
+    @Override
+    public String toString() {
+        return include.isEmpty() ? "full" : String.join(",", include);
+    }
+}
@@ -4,24 +4,28 @@ import com.example.demo.model.Car;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
-import org.springframework.data.mongodb.repository.Query;
 
 @Repository
-public interface CarRepository extends MongoRepository<Car, String> {
+public interface CarRepository extends MongoRepository<Car, String>, CarRepositoryCustom {
+
+    // Implemented by CarRepositoryImpl (catalog versions); redeclared so callers see one save
+    @Override
+    <S extends Car> S save(S car);
+
+    @Override
+    <S extends Car> List<S> saveAll(Iterable<S> cars);
+
     List<Car> findByCondition(String condition);
 
     // Public cars
     List<Car> findByApprovedTrue();
 
-    // Admin approval list
-    List<Car> findByApprovedFalse();
+    // Moderation backlog size (the list itself is paged, see findPendingPage)
+    long countByApprovedFalse();
 
     // Showroom specific cars
     List<Car> findByShowroomEmail(String showroomEmail);
      List<Car> findBySellerEmail(String sellerEmail);
-     // ✅ BRAND FILTER (ONLY APPROVED CARS)
-     @Query("{ 'brand': { $regex: ?0, $options: 'i' }, 'approved': true }")
-List<Car> findByBrandRegexAndApproved(String brand);
 
 List<Car> findByApprovedTrueAndConditionIn(List<String> conditions);
 List<Car> findByConditionAndApprovedTrue(String condition);
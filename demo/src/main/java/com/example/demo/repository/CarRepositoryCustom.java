@@ -0,0 +1,91 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CarCursorPage;
+import com.example.demo.dto.CarFacets;
+import com.example.demo.dto.CarPage;
+import com.example.demo.dto.CarSearchRequest;
+import com.example.demo.model.Car;
+import com.example.demo.model.CarTombstone;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hand-written queries that derived finder methods cannot express.
+ * Implemented by {@link CarRepositoryImpl} on top of MongoTemplate.
+ */
+public interface CarRepositoryCustom {
+
+    // ================= WRITES =================
+    // Replace CrudRepository's: an approved car gets a fresh catalog version for
+    // delta sync, reserved around the write and released even when it fails.
+    // Pending cars get theirs when they are approved (approvePending).
+    <S extends Car> S save(S car);
+
+    <S extends Car> List<S> saveAll(Iterable<S> cars);
+
+    // Faceted catalog search over approved cars, one page at a time
+    CarPage<Car> search(CarSearchRequest request, CarFields fields);
+
+    // Per-value counts and price/mileage histograms for the search filter panels
+    CarFacets facets(CarSearchRequest request);
+
+    // Approved cars, optionally limited to one condition (New | Used)
+    List<Car> findApproved(String condition, CarFields fields);
+
+    List<Car> findApprovedByBrand(String brand, CarFields fields);
+
+    // Approved cars by id, in no particular order
+    List<Car> findApprovedByIds(Collection<String> ids, CarFields fields);
+
+    // Same, returned in the order of ids (ranked or sampled results)
+    List<Car> findApprovedInOrder(List<String> ids, CarFields fields);
+
+    // Only id, imageId and certificateId of any cars (approved or not), for releasing their blobs
+    List<Car> findMediaRefs(Collection<String> ids);
+
+    // Only id and showroomId, for resolving showroom contacts
+    List<Car> findShowroomRefs(Collection<String> ids);
+
+    // ================= MODERATION =================
+    // Only id and approved flag, to sort a moderation batch into pending / approved / missing
+    List<Car> findApprovalStates(Collection<String> ids);
+
+    // One bulk write: approved=true and a new version on those of ids still pending; returns the ids it approved
+    List<String> approvePending(Collection<String> ids);
+
+    // Claims, then deletes, the cars of ids plus a tombstone each for delta sync;
+    // returns the removed cars (id and media refs) - only those this call removed
+    List<Car> removeByIds(Collection<String> ids);
+
+    // ================= DELTA SYNC (version) =================
+    // Approved cars with since < version <= upTo, lowest version first
+    List<Car> findChangedSince(long since, long upTo, int limit, CarFields fields);
+
+    // Removals in the same version range
+    List<CarTombstone> findRemovedSince(long since, long upTo, int limit);
+
+    // Drops tombstones older than the cutoff and raises the tombstone floor; returns how many
+    long purgeTombstones(Instant removedBefore);
+
+    // Random approved cars picked by Mongo's $sample stage
+    List<Car> sampleApproved(List<String> conditions, int size, CarFields fields);
+
+    // Ids of every approved car, read from the _id index only
+    List<String> findApprovedIds(List<String> conditions);
+
+    // ================= KEYSET (createdAt, _id) =================
+
+    // Approved cars, newest first; after = cursor from the previous page or null
+    CarCursorPage<Car> findApprovedPage(String condition, String after, int limit, CarFields fields);
+
+    // Same order, as an open Mongo cursor; the caller must close the stream
+    Stream<Car> streamApproved(String condition, String after, CarFields fields);
+
+    // Cars waiting for moderation, oldest first
+    CarCursorPage<Car> findPendingPage(String after, int limit, CarFields fields);
+
+    Stream<Car> streamPending(String after, CarFields fields);
+}
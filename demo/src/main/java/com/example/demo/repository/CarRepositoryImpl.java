@@ -0,0 +1,509 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CarCursorPage;
+import com.example.demo.dto.CarFacets;
+import com.example.demo.dto.FacetCount;
+import com.example.demo.dto.HistogramBucket;
+import com.example.demo.dto.CarPage;
+import com.example.demo.dto.CarSearchRequest;
+import com.example.demo.model.Car;
+import com.example.demo.model.CarTombstone;
+import com.example.demo.service.BrandNormalizer;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class CarRepositoryImpl implements CarRepositoryCustom {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Claim a rejection batch puts on its cars before deleting them
+    static final String REJECTING = "rejecting";
+    static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(10);
+
+    // Histogram edges; the last bucket is open-ended
+    static final double[] PRICE_BUCKETS = {0, 200_000, 500_000, 1_000_000, 2_000_000, 5_000_000, 10_000_000};
+    static final double[] MILEAGE_BUCKETS = {0, 10_000, 30_000, 50_000, 75_000, 100_000, 150_000};
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogSequence catalogSequence;
+
+    public CarRepositoryImpl(MongoTemplate mongoTemplate, CatalogSequence catalogSequence) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogSequence = catalogSequence;
+    }
+
+    // ================= WRITES =================
+    @Override
+    public <S extends Car> S save(S car) {
+        // pending cars are not in /changes, so their writes hold no reader back
+        if (!Boolean.TRUE.equals(car.getApproved())) {
+            return mongoTemplate.save(car);
+        }
+
+        long version = catalogSequence.reserve(1);
+        car.setVersion(version);
+        try {
+            return mongoTemplate.save(car);
+        } finally {
+            catalogSequence.release(version);
+        }
+    }
+
+    @Override
+    public <S extends Car> List<S> saveAll(Iterable<S> cars) {
+        List<S> saved = new ArrayList<>();
+        for (S car : cars) {
+            saved.add(save(car));
+        }
+        return saved;
+    }
+
+    @Override
+    public CarPage<Car> search(CarSearchRequest request, CarFields fields) {
+        int size = Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE);
+        int page = Math.max(request.getPage(), 0);
+
+        Query query = new Query(buildCriteria(request));
+
+        // count before paging so the total reflects every match
+        long total = mongoTemplate.count(query, Car.class);
+
+        query.with(resolveSort(request.getSort()))
+                .skip((long) page * size)
+                .limit(size);
+
+        List<Car> content = mongoTemplate.find(fields.applyTo(query), Car.class);
+        return new CarPage<>(content, page, size, total);
+    }
+
+    @Override
+    public List<Car> findApproved(String condition, CarFields fields) {
+        Criteria criteria = Criteria.where("approved").is(true);
+        if (condition != null) {
+            criteria = criteria.and("condition").is(condition);
+        }
+        return mongoTemplate.find(fields.applyTo(new Query(criteria)), Car.class);
+    }
+
+    @Override
+    public List<Car> findApprovedByBrand(String brand, CarFields fields) {
+        // exact match on the canonical key -> (brandKey, approved) index seek
+        Query query = new Query(Criteria.where("brandKey").is(BrandNormalizer.key(brand)).and("approved").is(true));
+        return mongoTemplate.find(fields.applyTo(query), Car.class);
+    }
+
+    @Override
+    public List<Car> findApprovedByIds(Collection<String> ids, CarFields fields) {
+        Query query = new Query(Criteria.where("_id").in(ids).and("approved").is(true));
+        return mongoTemplate.find(fields.applyTo(query), Car.class);
+    }
+
+    @Override
+    public List<Car> findApprovedInOrder(List<String> ids, CarFields fields) {
+        if (ids.isEmpty()) return List.of();
+
+        // $in returns documents in index order, put them back in ours
+        Map<String, Car> byId = new HashMap<>();
+        for (Car car : findApprovedByIds(ids, fields)) {
+            byId.put(car.getId(), car);
+        }
+        List<Car> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Car car = byId.get(id);
+            if (car != null) ordered.add(car);
+        }
+        return ordered;
+    }
+
+    @Override
+    public List<Car> findMediaRefs(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("imageId", "certificateId");
+        return mongoTemplate.find(query, Car.class);
+    }
+
+    @Override
+    public List<Car> findShowroomRefs(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("showroomId");
+        return mongoTemplate.find(query, Car.class);
+    }
+
+    // ================= MODERATION =================
+    @Override
+    public List<Car> findApprovalStates(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("approved");
+        return mongoTemplate.find(query, Car.class);
+    }
+
+    @Override
+    public List<String> approvePending(Collection<String> ids) {
+        // field-level $set, nothing is read or rewritten; one bulk write,
+        // because every car gets its own catalog version
+        long first = catalogSequence.reserve(ids.size());
+        long version = first;
+        Map<Long, String> stamped = new HashMap<>();
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Car.class);
+            for (String id : ids) {
+                stamped.put(version, id);
+                bulk.updateOne(new Query(Criteria.where("_id").is(id).and("approved").ne(true)),
+                        new Update().set("approved", true).set("version", version++));
+            }
+            bulk.execute();
+
+            // the bulk result only has a total; a car still carrying the version
+            // this write gave it is one whose update matched
+            Query written = new Query(Criteria.where("_id").in(ids).and("version").gte(first).lt(version));
+            written.fields().include("version");
+            return mongoTemplate.find(written, Car.class).stream()
+                    .filter(car -> car.getId().equals(stamped.get(car.getVersion())))
+                    .map(Car::getId)
+                    .toList();
+        } finally {
+            catalogSequence.release(first);
+        }
+    }
+
+    @Override
+    public List<Car> removeByIds(Collection<String> ids) {
+        // claim first, so a concurrent rejection of the same car can't remove
+        // (and release the media of) a car this call reports; a claim left by
+        // a crashed node can be taken over once it is CLAIM_TIMEOUT old
+        String claim = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids).orOperator(
+                        Criteria.where(REJECTING + ".at").exists(false),
+                        Criteria.where(REJECTING + ".at").lt(now.minus(CLAIM_TIMEOUT)))),
+                new Update().set(REJECTING, new Document("by", claim).append("at", now)),
+                Car.class);
+
+        Query claimed = new Query(Criteria.where(REJECTING + ".by").is(claim));
+        claimed.fields().include("imageId", "certificateId");
+        List<Car> removed = mongoTemplate.find(claimed, Car.class);
+        if (removed.isEmpty()) {
+            return removed;
+        }
+        mongoTemplate.remove(new Query(Criteria.where(REJECTING + ".by").is(claim)), Car.class);
+
+        // upserts: a tombstone from an earlier removal of the same id may exist
+        long first = catalogSequence.reserve(removed.size());
+        long version = first;
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CarTombstone.class);
+            for (Car car : removed) {
+                bulk.upsert(new Query(Criteria.where("_id").is(car.getId())),
+                        new Update().set("version", version++).set("removedAt", now));
+            }
+            bulk.execute();
+        } finally {
+            catalogSequence.release(first);
+        }
+        return removed;
+    }
+
+    // ================= DELTA SYNC =================
+    @Override
+    public List<Car> findChangedSince(long since, long upTo, int limit, CarFields fields) {
+        Query query = new Query(Criteria.where("approved").is(true).and("version").gt(since).lte(upTo))
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(limit);
+        if (!fields.isFull()) {
+            fields.applyTo(query).fields().include("version");
+        }
+        return mongoTemplate.find(query, Car.class);
+    }
+
+    @Override
+    public List<CarTombstone> findRemovedSince(long since, long upTo, int limit) {
+        Query query = new Query(Criteria.where("version").gt(since).lte(upTo))
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(limit);
+        return mongoTemplate.find(query, CarTombstone.class);
+    }
+
+    @Override
+    public long purgeTombstones(Instant removedBefore) {
+        Query expired = new Query(Criteria.where("removedAt").lt(removedBefore));
+        CarTombstone newest = mongoTemplate.findOne(
+                Query.of(expired).with(Sort.by(Sort.Direction.DESC, "version")).limit(1), CarTombstone.class);
+        if (newest == null) {
+            return 0;
+        }
+
+        // raised first: a client must never miss a removal it was not told about
+        catalogSequence.raiseTombstoneFloor(newest.getVersion());
+        return mongoTemplate.remove(
+                new Query(Criteria.where("version").lte(newest.getVersion())), CarTombstone.class).getDeletedCount();
+    }
+
+    @Override
+    public List<Car> sampleApproved(List<String> conditions, int size, CarFields fields) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(Criteria.where("approved").is(true).and("condition").in(conditions)));
+        stages.add(Aggregation.sample(size));
+        if (!fields.isFull()) {
+            stages.add(Aggregation.project(fields.getInclude().toArray(new String[0])));
+        }
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages), Car.class, Car.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public List<String> findApprovedIds(List<String> conditions) {
+        Query query = new Query(Criteria.where("approved").is(true).and("condition").in(conditions));
+        query.fields().include("_id");
+
+        try (Stream<Document> docs = mongoTemplate.stream(query, Document.class, "cars")) {
+            return docs.map(doc -> String.valueOf(doc.get("_id"))).toList();
+        }
+    }
+
+    // ================= FACETS =================
+    // One $facet pass; each facet applies every filter except its own
+    @Override
+    public CarFacets facets(CarSearchRequest request) {
+        Document facets = new Document()
+                .append("total", List.of(match(request), new Document("$count", "n")))
+                .append("brands", List.of(
+                        match(without(request, r -> r.setBrand(null))),
+                        groupValues("$brandKey", "$brand")))
+                .append("fuelTypes", List.of(
+                        match(without(request, r -> r.setFuelType(null))),
+                        groupValues(new Document("$toLower", "$fuelType"), "$fuelType")))
+                .append("bodyTypes", List.of(
+                        match(without(request, r -> r.setBodyType(null))),
+                        groupValues(new Document("$toLower", "$bodyType"), "$bodyType")))
+                .append("years", List.of(
+                        match(without(request, r -> { r.setMinYear(null); r.setMaxYear(null); })),
+                        new Document("$group", new Document("_id", "$year").append("count", new Document("$sum", 1))),
+                        new Document("$sort", new Document("_id", -1))))
+                .append("price", List.of(
+                        match(without(request, r -> { r.setMinPrice(null); r.setMaxPrice(null); })),
+                        bucket("$price", PRICE_BUCKETS)))
+                .append("mileage", List.of(
+                        match(without(request, r -> { r.setMinMileage(null); r.setMaxMileage(null); })),
+                        bucket("$mileage", MILEAGE_BUCKETS)));
+
+        // narrow to the condition first so the approved/condition index does the bulk of the work
+        Document common = new Document("approved", true);
+        if (hasText(request.getCondition())) {
+            common.append("condition", request.getCondition().trim());
+        }
+
+        Document result = mongoTemplate.getCollection("cars")
+                .aggregate(List.of(new Document("$match", common), new Document("$facet", facets)))
+                .first();
+
+        CarFacets out = new CarFacets();
+        if (result == null) return out;
+
+        List<Document> total = result.getList("total", Document.class);
+        out.setTotal(total.isEmpty() ? 0 : ((Number) total.get(0).get("n")).longValue());
+        out.setBrands(facetCounts(result.getList("brands", Document.class)));
+        out.setFuelTypes(facetCounts(result.getList("fuelTypes", Document.class)));
+        out.setBodyTypes(facetCounts(result.getList("bodyTypes", Document.class)));
+        out.setYears(facetCounts(result.getList("years", Document.class)));
+        out.setPrice(histogram(result.getList("price", Document.class), PRICE_BUCKETS));
+        out.setMileage(histogram(result.getList("mileage", Document.class), MILEAGE_BUCKETS));
+        return out;
+    }
+
+    private static CarSearchRequest without(CarSearchRequest request, Consumer<CarSearchRequest> clear) {
+        CarSearchRequest copy = request.copy();
+        clear.accept(copy);
+        return copy;
+    }
+
+    private static Document match(CarSearchRequest request) {
+        return new Document("$match", buildCriteria(request).getCriteriaObject());
+    }
+
+    // Counts per normalized key, labelled with one of the spellings seen
+    private static Document groupValues(Object key, String label) {
+        return new Document("$group", new Document("_id", key)
+                .append("value", new Document("$first", label))
+                .append("count", new Document("$sum", 1)));
+    }
+
+    private static Document bucket(String field, double[] edges) {
+        List<Object> boundaries = new ArrayList<>();
+        for (double edge : edges) boundaries.add(edge);
+        boundaries.add(Double.MAX_VALUE);
+
+        return new Document("$bucket", new Document("groupBy", field)
+                .append("boundaries", boundaries)
+                .append("default", "none")   // missing or negative values
+                .append("output", new Document("count", new Document("$sum", 1))));
+    }
+
+    private static List<FacetCount> facetCounts(List<Document> groups) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Document group : groups) {
+            Object value = group.containsKey("value") ? group.get("value") : group.get("_id");
+            if (group.get("_id") == null || value == null) continue;
+            counts.add(new FacetCount(String.valueOf(value), ((Number) group.get("count")).longValue()));
+        }
+        if (!groups.isEmpty() && groups.get(0).containsKey("value")) {
+            counts.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                    .thenComparing(FacetCount::getValue));
+        }
+        return counts;
+    }
+
+    // Every bucket, including the empty ones $bucket leaves out
+    private static List<HistogramBucket> histogram(List<Document> buckets, double[] edges) {
+        Map<Double, Long> counts = new HashMap<>();
+        for (Document bucket : buckets) {
+            if (bucket.get("_id") instanceof Number edge) {
+                counts.put(edge.doubleValue(), ((Number) bucket.get("count")).longValue());
+            }
+        }
+
+        List<HistogramBucket> histogram = new ArrayList<>(edges.length);
+        for (int i = 0; i < edges.length; i++) {
+            Double max = i + 1 < edges.length ? edges[i + 1] : null;
+            histogram.add(new HistogramBucket(edges[i], max, counts.getOrDefault(edges[i], 0L)));
+        }
+        return histogram;
+    }
+
+    // ================= KEYSET PAGING =================
+    @Override
+    public CarCursorPage<Car> findApprovedPage(String condition, String after, int limit, CarFields fields) {
+        return findPage(approvedFilter(condition), Sort.Direction.DESC, after, limit, fields);
+    }
+
+    @Override
+    public Stream<Car> streamApproved(String condition, String after, CarFields fields) {
+        return stream(approvedFilter(condition), Sort.Direction.DESC, after, fields);
+    }
+
+    @Override
+    public CarCursorPage<Car> findPendingPage(String after, int limit, CarFields fields) {
+        return findPage(Criteria.where("approved").is(false), Sort.Direction.ASC, after, limit, fields);
+    }
+
+    @Override
+    public Stream<Car> streamPending(String after, CarFields fields) {
+        return stream(Criteria.where("approved").is(false), Sort.Direction.ASC, after, fields);
+    }
+
+    private CarCursorPage<Car> findPage(Criteria filter, Sort.Direction direction,
+                                        String after, int limit, CarFields fields) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // one extra row tells us whether there is a next page
+        Query query = keysetQuery(filter, direction, after, fields).limit(size + 1);
+        List<Car> rows = mongoTemplate.find(query, Car.class);
+
+        if (rows.size() <= size) {
+            return new CarCursorPage<>(rows, null);
+        }
+        List<Car> items = rows.subList(0, size);
+        return new CarCursorPage<>(items, CarCursor.of(items.get(size - 1)).encode());
+    }
+
+    private Stream<Car> stream(Criteria filter, Sort.Direction direction, String after, CarFields fields) {
+        return mongoTemplate.stream(keysetQuery(filter, direction, after, fields), Car.class);
+    }
+
+    private static Query keysetQuery(Criteria filter, Sort.Direction direction, String after, CarFields fields) {
+        Criteria criteria = filter;
+        if (after != null && !after.isBlank()) {
+            criteria = new Criteria().andOperator(filter, CarCursor.decode(after).after(direction));
+        }
+
+        // createdAt is always needed to build the next cursor
+        Query query = new Query(criteria).with(CarCursor.sort(direction));
+        if (!fields.isFull()) {
+            fields.applyTo(query).fields().include("createdAt");
+        }
+        return query;
+    }
+
+    private static Criteria approvedFilter(String condition) {
+        Criteria criteria = Criteria.where("approved").is(true);
+        return condition == null ? criteria : criteria.and("condition").is(condition);
+    }
+
+    // ================= FILTERS =================
+    static Criteria buildCriteria(CarSearchRequest request) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("approved").is(true));
+
+        if (hasText(request.getCondition())) {
+            filters.add(Criteria.where("condition").is(request.getCondition().trim()));
+        }
+        if (hasText(request.getBrand())) {
+            filters.add(Criteria.where("brandKey").is(BrandNormalizer.key(request.getBrand())));
+        }
+        if (hasText(request.getFuelType())) {
+            filters.add(Criteria.where("fuelType").regex(exact(request.getFuelType())));
+        }
+        if (hasText(request.getBodyType())) {
+            filters.add(Criteria.where("bodyType").regex(exact(request.getBodyType())));
+        }
+
+        addRange(filters, "year", request.getMinYear(), request.getMaxYear());
+        addRange(filters, "price", request.getMinPrice(), request.getMaxPrice());
+        addRange(filters, "mileage", request.getMinMileage(), request.getMaxMileage());
+
+        return new Criteria().andOperator(filters.toArray(new Criteria[0]));
+    }
+
+    static Sort resolveSort(String sort) {
+        if (sort == null) {
+            return Sort.by(Sort.Direction.DESC, "_id");
+        }
+        switch (sort.trim().toLowerCase()) {
+            case "price_asc":    return Sort.by(Sort.Direction.ASC, "price").and(Sort.by("_id"));
+            case "price_desc":   return Sort.by(Sort.Direction.DESC, "price").and(Sort.by("_id"));
+            case "year_asc":     return Sort.by(Sort.Direction.ASC, "year").and(Sort.by("_id"));
+            case "year_desc":    return Sort.by(Sort.Direction.DESC, "year").and(Sort.by("_id"));
+            case "mileage_asc":  return Sort.by(Sort.Direction.ASC, "mileage").and(Sort.by("_id"));
+            case "mileage_desc": return Sort.by(Sort.Direction.DESC, "mileage").and(Sort.by("_id"));
+            default:             return Sort.by(Sort.Direction.DESC, "_id");
+        }
+    }
+
+    private static <T> void addRange(List<Criteria> filters, String field, T min, T max) {
+        if (min == null && max == null) return;
+
+        Criteria range = Criteria.where(field);
+        if (min != null) range = range.gte(min);
+        if (max != null) range = range.lte(max);
+        filters.add(range);
+    }
+
+    // case-insensitive whole-value match, user input is quoted
+    private static Pattern exact(String value) {
+        return Pattern.compile("^" + Pattern.quote(value.trim()) + "$", Pattern.CASE_INSENSITIVE);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank() && !value.equalsIgnoreCase("All");
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.CarSubmission;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CarSubmissionRepository extends MongoRepository<CarSubmission, String> {
+
+    List<CarSubmission> findByStatusInAndUpdatedAtBefore(Collection<CarSubmission.Status> statuses, Instant cutoff);
+
+    long deleteByStatusInAndUpdatedAtBefore(Collection<CarSubmission.Status> statuses, Instant cutoff);
+}
@@ -0,0 +1,122 @@
+package com.example.demo.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Catalog-wide sequence behind Car.version and CarTombstone.version.
+ *
+ * Numbers come from one counter document, so they are unique and
+ * increasing across nodes. A writer reserves numbers before its write and
+ * releases them once the write is done.
+ *
+ * A number can be handed out before a smaller one is written, so delta
+ * readers must stop below the oldest write still in flight, on any node:
+ * {@link #stableVersion()}. Reservations live in the counter document next
+ * to the value ("inFlight": [{first, at}]) and are added by the same atomic
+ * update that hands the numbers out, so no reader can see the counter move
+ * past a number without also seeing its reservation. A reservation that is
+ * never released (failed write, crashed node) stops holding readers back
+ * after the hold timeout and is pulled by the next reader.
+ *
+ * Talks to the driver directly: the Car save callback needs this before
+ * MongoTemplate exists.
+ */
+@Component
+public class CatalogSequence {
+
+    private static final String COLLECTION = "counters";
+    private static final String CATALOG = "catalog";
+    private static final String TOMBSTONE_FLOOR = "catalog-tombstone-floor";
+
+    private final MongoDatabaseFactory mongoDatabaseFactory;
+    private final Duration holdTimeout;
+
+    public CatalogSequence(MongoDatabaseFactory mongoDatabaseFactory,
+                           @Value("${cartrizo.catalog.sequence.hold-timeout:PT30S}") Duration holdTimeout) {
+        this.mongoDatabaseFactory = mongoDatabaseFactory;
+        this.holdTimeout = holdTimeout;
+    }
+
+    // Reserves count consecutive numbers and returns the first; release(first) when written
+    public long reserve(int count) {
+        // pipeline update: the second stage sees the new value
+        Document counter = counters().findOneAndUpdate(
+                Filters.eq("_id", CATALOG),
+                List.of(
+                        new Document("$set", new Document("value",
+                                new Document("$add", List.of(new Document("$ifNull", List.of("$value", 0L)), (long) count)))),
+                        new Document("$set", new Document("inFlight",
+                                new Document("$concatArrays", List.of(
+                                        new Document("$ifNull", List.of("$inFlight", List.of())),
+                                        List.of(new Document("first", new Document("$subtract", List.of("$value", (long) count - 1)))
+                                                .append("at", "$$NOW"))))))
+                ),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return counter.get("value", Number.class).longValue() - count + 1;
+    }
+
+    public void release(long first) {
+        counters().updateOne(Filters.eq("_id", CATALOG),
+                Updates.pull("inFlight", new Document("first", first)));
+    }
+
+    // Highest version below which every write has finished, on every node
+    public long stableVersion() {
+        Document counter = counters().find(Filters.eq("_id", CATALOG)).first();
+        if (counter == null) return 0;
+
+        long current = counter.get("value", Number.class).longValue();
+        Date cutoff = Date.from(Instant.now().minus(holdTimeout));
+
+        long stable = current;
+        boolean expired = false;
+        for (Document reservation : counter.getList("inFlight", Document.class, List.of())) {
+            Date at = reservation.getDate("at");
+            if (at != null && at.before(cutoff)) {
+                expired = true;
+                continue;
+            }
+            stable = Math.min(stable, reservation.get("first", Number.class).longValue() - 1);
+        }
+
+        if (expired) {
+            counters().updateOne(Filters.eq("_id", CATALOG),
+                    Updates.pull("inFlight", Filters.lt("at", cutoff)));
+        }
+        return stable;
+    }
+
+    // ================= TOMBSTONE FLOOR =================
+    // Highest tombstone version purged; clients synced before it must start over
+    public long tombstoneFloor() {
+        return read(TOMBSTONE_FLOOR);
+    }
+
+    public void raiseTombstoneFloor(long version) {
+        counters().updateOne(Filters.eq("_id", TOMBSTONE_FLOOR),
+                Updates.max("value", version), new UpdateOptions().upsert(true));
+    }
+
+    private long read(String id) {
+        Document doc = counters().find(Filters.eq("_id", id)).first();
+        return doc == null ? 0 : doc.get("value", Number.class).longValue();
+    }
+
+    private MongoCollection<Document> counters() {
+        return mongoDatabaseFactory.getMongoDatabase().getCollection(COLLECTION);
+    }
+}
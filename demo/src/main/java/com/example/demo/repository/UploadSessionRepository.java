@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.UploadSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String> {
+
+    List<UploadSession> findByUpdatedAtBefore(Instant cutoff);
+}
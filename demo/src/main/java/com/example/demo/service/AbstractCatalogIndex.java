@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Load-once, rebuild-on-demand lifecycle shared by the in-memory indexes.
+ *
+ * One rebuild runs at a time; the first query before warm-up finished runs
+ * it itself (or waits for the one in flight). A rebuild reads the source and
+ * swaps in a fresh copy, so changes applied to the old copy meanwhile would
+ * be lost: subclasses record each change with {@link #recordChange}, and
+ * once the fresh copy is in, whatever was recorded is handed back to
+ * {@link #applyChanged} until nothing new arrives.
+ *
+ * @param <C> what a recorded change is (a car id, an operation, ...)
+ */
+abstract class AbstractCatalogIndex<C> implements CatalogIndex {
+
+    // a lock rather than synchronized so virtual threads don't pin during the read
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final RebuildJournal<C> journal = new RebuildJournal<>();
+    private volatile boolean loaded;
+
+    // Reads the whole source and swaps the fresh copy in
+    protected abstract void loadAll();
+
+    // Re-applies changes recorded while loadAll() ran, oldest first, to the fresh copy
+    protected abstract void applyChanged(List<C> changes);
+
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            reload();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    protected void ensureLoaded() {
+        if (loaded) return;
+        rebuildLock.lock();
+        try {
+            if (!loaded) reload();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    protected boolean isLoaded() {
+        return loaded;
+    }
+
+    // Outside a rebuild these are no-ops
+    protected void recordChange(C change) {
+        journal.record(change);
+    }
+
+    protected void recordChanges(Collection<? extends C> changes) {
+        journal.recordAll(changes);
+    }
+
+    // Caller holds rebuildLock
+    private void reload() {
+        journal.begin();
+        try {
+            loadAll();
+            loaded = true;
+
+            for (List<C> changes = journal.drain(); !changes.isEmpty(); changes = journal.drain()) {
+                applyChanged(changes);
+            }
+        } finally {
+            journal.end();
+        }
+    }
+}
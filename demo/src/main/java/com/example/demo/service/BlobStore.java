@@ -0,0 +1,218 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Blob;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed, reference-counted storage for uploaded media.
+ *
+ * An upload is hashed (SHA-256) in one streaming pass over its spooled copy.
+ * If a blob with that hash exists, its reference count goes up and nothing
+ * is written; otherwise the bytes are streamed into GridFS once. Cars and
+ * profiles keep the blob id, which is the hex hash for public media (so
+ * /api/media/{hash} never changes) and "private-{hash}" for certificates,
+ * which /api/media never serves.
+ *
+ * The stored content type is the one sniffed from the bytes (see
+ * {@link MediaTypes}), never the uploader's: public media must be JPEG,
+ * PNG or WebP, certificates may also be PDF.
+ *
+ * Ids written before this store are plain GridFS ObjectIds with a single
+ * owner; they are still resolved, and released by deleting the file.
+ */
+@Service
+public class BlobStore {
+
+    private static final String PRIVATE_PREFIX = "private-";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+
+    public BlobStore(MongoTemplate mongoTemplate,
+                     FileStorageService fileStorageService,
+                     ImageVariantService imageVariantService) {
+        this.mongoTemplate = mongoTemplate;
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+    }
+
+    // ================= STORE =================
+    // Public image; resized variants are generated the first time the bytes are seen
+    public String storeMedia(MultipartFile file) {
+        return store(file, file.getOriginalFilename(), false);
+    }
+
+    // source must be readable twice: once to hash, once to store
+    public String storeMedia(InputStreamSource source, String filename) {
+        return store(source, filename, false);
+    }
+
+    public String storePrivate(MultipartFile file) {
+        return store(file, file.getOriginalFilename(), true);
+    }
+
+    public String storePrivate(InputStreamSource source, String filename) {
+        return store(source, filename, true);
+    }
+
+    private String store(InputStreamSource source, String filename, boolean isPrivate) {
+        Digest digest = digest(source);
+        String contentType = MediaTypes.require(digest.type,
+                isPrivate ? MediaTypes.CERTIFICATES : MediaTypes.IMAGES);
+        String id = (isPrivate ? PRIVATE_PREFIX : "") + digest.hash;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (addReference(id)) {
+                return id;
+            }
+
+            Document metadata = isPrivate
+                    ? FileStorageService.privateMetadata(FileStorageService.CERTIFICATE_KIND)
+                    : new Document();
+            metadata.append("blobId", id);
+
+            String fileId;
+            try (InputStream in = source.getInputStream()) {
+                fileId = fileStorageService.store(in, filename, contentType, metadata);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Blob blob = new Blob();
+            blob.setId(id);
+            blob.setFileId(fileId);
+            blob.setSize(digest.size);
+            blob.setContentType(contentType);
+            blob.setRefCount(1);
+            blob.setCreatedAt(Instant.now());
+
+            try {
+                mongoTemplate.insert(blob);
+            } catch (DuplicateKeyException e) {
+                // the same bytes were stored concurrently; keep theirs
+                fileStorageService.delete(fileId);
+                continue;
+            }
+
+            if (!isPrivate) {
+                imageVariantService.enqueue(fileId);
+            }
+            return id;
+        }
+        throw new IllegalStateException("Could not store blob " + id);
+    }
+
+    private boolean addReference(String id) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id).and("refCount").gt(0)),
+                new Update().inc("refCount", 1),
+                Blob.class) != null;
+    }
+
+    // ================= RELEASE =================
+    // Drops one reference; the file and its variants go with the last one
+    public void release(String ref) {
+        if (ref == null || ref.isBlank()) return;
+
+        if (!isBlobRef(ref)) {
+            deleteFileAndVariants(ref);
+            return;
+        }
+
+        Blob after = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(ref)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                Blob.class);
+        if (after == null || after.getRefCount() > 0) return;
+
+        // only if nobody re-referenced it in between
+        DeleteResult removed = mongoTemplate.remove(
+                new Query(Criteria.where("_id").is(ref).and("refCount").lte(0)), Blob.class);
+        if (removed.getDeletedCount() == 1) {
+            deleteFileAndVariants(after.getFileId());
+        }
+    }
+
+    private void deleteFileAndVariants(String fileId) {
+        fileStorageService.delete(fileId);
+        fileStorageService.deleteWhere(new Query(Criteria.where("metadata.parentId").is(fileId)));
+    }
+
+    // ================= LOOKUP =================
+    public Optional<GridFSFile> findFile(String ref) {
+        if (ref == null) return Optional.empty();
+        if (!isBlobRef(ref)) {
+            return fileStorageService.find(ref);
+        }
+        return Optional.ofNullable(mongoTemplate.findById(ref, Blob.class))
+                .flatMap(blob -> fileStorageService.find(blob.getFileId()));
+    }
+
+    // Only what /api/media may serve: public blobs and public legacy files
+    public Optional<GridFSFile> findPublicFile(String ref) {
+        if (ref == null || ref.startsWith(PRIVATE_PREFIX)) return Optional.empty();
+        return findFile(ref).filter(file -> !FileStorageService.isPrivate(file));
+    }
+
+    private static boolean isBlobRef(String ref) {
+        String hash = ref.startsWith(PRIVATE_PREFIX) ? ref.substring(PRIVATE_PREFIX.length()) : ref;
+        return HASH.matcher(hash).matches();
+    }
+
+    // ================= HASHING =================
+    private record Digest(String hash, long size, String type) {}
+
+    private static Digest digest(InputStreamSource source) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        byte[] head = new byte[MediaTypes.HEAD_LENGTH];
+        int headLength = 0;
+        try (InputStream in = source.getInputStream()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                sha256.update(buffer, 0, n);
+                if (headLength < head.length) {
+                    int take = Math.min(n, head.length - headLength);
+                    System.arraycopy(buffer, 0, head, headLength, take);
+                    headLength += take;
+                }
+                size += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Digest(HexFormat.of().formatHex(sha256.digest()), size, MediaTypes.sniff(head, headLength));
+    }
+}
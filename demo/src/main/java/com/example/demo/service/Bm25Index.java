@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Inverted index with Okapi BM25 ranking.
+ *
+ * Documents get dense int ordinals; each term keeps parallel int[] arrays of
+ * ordinals and term frequencies, appended in ordinal order. Removed documents
+ * are tombstoned in a BitSet and dropped by {@link #compact()} once they make
+ * up a quarter of the index; each term also keeps a live document frequency
+ * so idf stays right while tombstones pile up. Not thread safe; callers lock
+ * around it.
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "in", "on", "with", "for", "to", "is", "it", "at", "by", "or"
+    );
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+        int liveDocs; // postings whose document is still live
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            liveDocs++;
+        }
+    }
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private String[] docIds = new String[64];
+    private int[] docLengths = new int[64];
+    private Postings[][] docTerms = new Postings[64][]; // distinct terms of each live document
+    private final BitSet live = new BitSet();
+
+    private int nextDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    // ================= TOKENIZER =================
+    public static List<String> tokenize(String... texts) {
+        List<String> tokens = new ArrayList<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+                if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // ================= WRITES =================
+    // Adds or replaces a document
+    public void put(String id, List<String> tokens) {
+        remove(id);
+
+        Map<String, Integer> tf = new LinkedHashMap<>();
+        for (String token : tokens) {
+            tf.merge(token, 1, Integer::sum);
+        }
+
+        int doc = nextDoc++;
+        if (doc == docIds.length) {
+            docIds = Arrays.copyOf(docIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+            docTerms = Arrays.copyOf(docTerms, doc * 2);
+        }
+        docIds[doc] = id;
+        docLengths[doc] = tokens.size();
+        live.set(doc);
+        ordinals.put(id, doc);
+
+        liveDocs++;
+        liveLength += tokens.size();
+
+        Postings[] postings = new Postings[tf.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            Postings p = terms.computeIfAbsent(e.getKey(), t -> new Postings());
+            p.add(doc, e.getValue());
+            postings[i++] = p;
+        }
+        docTerms[doc] = postings;
+    }
+
+    public void remove(String id) {
+        Integer doc = ordinals.remove(id);
+        if (doc == null) return;
+
+        live.clear(doc);
+        liveDocs--;
+        liveLength -= docLengths[doc];
+        for (Postings p : docTerms[doc]) {
+            p.liveDocs--;
+        }
+        docTerms[doc] = null;
+
+        int dead = nextDoc - liveDocs;
+        if (dead > 1024 && dead * 4 > nextDoc) {
+            compact();
+        }
+    }
+
+    // Drops tombstoned documents and renumbers the rest
+    public void compact() {
+        int[] remap = new int[nextDoc];
+        int next = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            remap[doc] = live.get(doc) ? next++ : -1;
+        }
+
+        String[] ids = new String[Math.max(64, next)];
+        int[] lengths = new int[ids.length];
+        Postings[][] termsOf = new Postings[ids.length][];
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (remap[doc] >= 0) {
+                ids[remap[doc]] = docIds[doc];
+                lengths[remap[doc]] = docLengths[doc];
+                termsOf[remap[doc]] = docTerms[doc];
+                ordinals.put(docIds[doc], remap[doc]);
+            }
+        }
+
+        terms.values().removeIf(p -> {
+            int kept = 0;
+            for (int i = 0; i < p.size; i++) {
+                int mapped = remap[p.docs[i]];
+                if (mapped >= 0) {
+                    p.docs[kept] = mapped;
+                    p.freqs[kept] = p.freqs[i];
+                    kept++;
+                }
+            }
+            p.size = kept;
+            return kept == 0;
+        });
+
+        docIds = ids;
+        docLengths = lengths;
+        docTerms = termsOf;
+        live.clear();
+        live.set(0, next);
+        nextDoc = next;
+    }
+
+    // ================= QUERY =================
+    // Ids of the best matching documents, highest score first
+    public List<String> search(Collection<String> queryTokens, int limit) {
+        if (liveDocs == 0 || limit <= 0) return List.of();
+
+        float avgLength = (float) liveLength / liveDocs;
+        float[] scores = new float[nextDoc];
+        boolean any = false;
+
+        for (String term : new LinkedHashSet<>(queryTokens)) {
+            Postings p = terms.get(term);
+            if (p == null || p.liveDocs == 0) continue;
+            any = true;
+
+            // live df, not p.size: tombstoned postings would push idf to zero or below
+            float idf = (float) Math.log(1 + (liveDocs - p.liveDocs + 0.5) / (p.liveDocs + 0.5));
+            for (int i = 0; i < p.size; i++) {
+                int doc = p.docs[i];
+                if (!live.get(doc)) continue;
+
+                float tf = p.freqs[i];
+                float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                scores[doc] += idf * (tf * (K1 + 1)) / (tf + norm);
+            }
+        }
+        if (!any) return List.of();
+
+        // min-heap of the best `limit` ordinals
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                (a, b) -> Float.compare(scores[a], scores[b]));
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (scores[doc] <= 0) continue;
+            top.offer(doc);
+            if (top.size() > limit) top.poll();
+        }
+
+        String[] ranked = new String[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = docIds[top.poll()];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    public int size() {
+        return liveDocs;
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+}
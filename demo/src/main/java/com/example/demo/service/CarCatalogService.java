@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.dto.CarFacets;
+import com.example.demo.dto.CarPage;
+import com.example.demo.dto.CarSearchRequest;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of the public catalog. Every query goes through {@link CatalogCache},
+ * which is cleared whenever a car is added, approved or rejected.
+ */
+@Service
+public class CarCatalogService {
+
+    private final CarRepository carRepository;
+    private final CatalogCache catalogCache;
+
+    public CarCatalogService(CarRepository carRepository, CatalogCache catalogCache) {
+        this.carRepository = carRepository;
+        this.catalogCache = catalogCache;
+    }
+
+    // condition null = every approved car
+    public List<Car> findApproved(String condition, CarFields fields) {
+        return catalogCache.get(
+                "approved:" + (condition == null ? "all" : condition) + ":" + fields,
+                () -> carRepository.findApproved(condition, fields)
+        );
+    }
+
+    public List<Car> findApprovedByBrand(String brand, CarFields fields) {
+        return catalogCache.get(
+                "brand:" + BrandNormalizer.key(brand) + ":" + fields,
+                () -> carRepository.findApprovedByBrand(brand, fields)
+        );
+    }
+
+    public CarPage<Car> search(CarSearchRequest request, CarFields fields) {
+        return catalogCache.get(
+                "search:" + request.cacheKey() + ":" + fields,
+                () -> carRepository.search(request, fields)
+        );
+    }
+
+    // Keyed on the filters only; sort and paging don't change the counts
+    public CarFacets facets(CarSearchRequest request) {
+        return catalogCache.get(
+                "facets:" + request.filterKey(),
+                () -> carRepository.facets(request)
+        );
+    }
+
+    public Optional<Car> findApprovedById(String id) {
+        Car car = catalogCache.get("car:" + id, () -> carRepository.findById(id)
+                .filter(Car::getApproved)
+                .orElse(null));
+        return Optional.ofNullable(car);
+    }
+}
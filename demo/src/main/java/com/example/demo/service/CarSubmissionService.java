@@ -0,0 +1,350 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.event.CatalogEventBus;
+import com.example.demo.model.Car;
+import com.example.demo.model.CarSubmission;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.CarSubmissionRepository;
+import com.example.demo.security.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accept-and-enqueue pipeline behind POST /api/cars/add.
+ *
+ * The request thread only moves the uploaded parts into a spool directory,
+ * records a QUEUED {@link CarSubmission} and hands the job to a bounded
+ * worker pool (cartrizo.submissions.workers). Workers resolve the seller,
+ * store the media through {@link BlobStore}, save the car and mark the
+ * submission DONE or FAILED. When the queue is full the submission is
+ * refused up front instead of piling up behind slow uploads.
+ *
+ * Jobs live in memory: submissions cut off by a restart are marked FAILED
+ * by the cleanup job once they have been idle for cartrizo.submissions.stuck-after.
+ */
+@Service
+public class CarSubmissionService {
+
+    private static final List<CarSubmission.Status> OPEN =
+            List.of(CarSubmission.Status.QUEUED, CarSubmission.Status.PROCESSING);
+    private static final List<CarSubmission.Status> FINISHED =
+            List.of(CarSubmission.Status.DONE, CarSubmission.Status.FAILED);
+
+    private final CarSubmissionRepository submissionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CarRepository carRepository;
+    private final ShowroomDirectory showroomDirectory;
+    private final JwtUtil jwtUtil;
+    private final BlobStore blobStore;
+    private final ResumableUploadService resumableUploadService;
+    private final CatalogEventBus catalogEvents;
+
+    private final ThreadPoolExecutor executor;
+    private final Path spoolDir;
+    private final Duration stuckAfter;
+    private final Duration retention;
+
+    private final Timer processingTimer;
+    private final Timer completionTimer;
+    private final Counter invalidCounter;
+    private final Counter errorCounter;
+    private final Counter rejectedCounter;
+
+    public CarSubmissionService(CarSubmissionRepository submissionRepository,
+                                MongoTemplate mongoTemplate,
+                                CarRepository carRepository,
+                                ShowroomDirectory showroomDirectory,
+                                JwtUtil jwtUtil,
+                                BlobStore blobStore,
+                                ResumableUploadService resumableUploadService,
+                                CatalogEventBus catalogEvents,
+                                MeterRegistry meterRegistry,
+                                @Value("${cartrizo.submissions.workers:4}") int workers,
+                                @Value("${cartrizo.submissions.queue-capacity:100}") int queueCapacity,
+                                @Value("${cartrizo.submissions.stuck-after:PT1H}") Duration stuckAfter,
+                                @Value("${cartrizo.submissions.retention:P7D}") Duration retention) throws IOException {
+        this.submissionRepository = submissionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.carRepository = carRepository;
+        this.showroomDirectory = showroomDirectory;
+        this.jwtUtil = jwtUtil;
+        this.blobStore = blobStore;
+        this.resumableUploadService = resumableUploadService;
+        this.catalogEvents = catalogEvents;
+        this.stuckAfter = stuckAfter;
+        this.retention = retention;
+        this.spoolDir = Files.createTempDirectory("cartrizo-submissions");
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "car-submissions-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("cartrizo.submissions.queue.depth", executor, e -> e.getQueue().size())
+                .description("Car submissions waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("cartrizo.submissions.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("cartrizo.submissions.processing")
+                .description("Worker time to resolve the seller, store media and save one car")
+                .register(meterRegistry);
+        this.completionTimer = Timer.builder("cartrizo.submissions.completion")
+                .description("Time from accepting a submission to its car being saved")
+                .register(meterRegistry);
+        // a reason the seller can fix vs. something that broke on our side
+        this.invalidCounter = meterRegistry.counter("cartrizo.submissions.failed", "cause", "invalid");
+        this.errorCounter = meterRegistry.counter("cartrizo.submissions.failed", "cause", "error");
+        this.rejectedCounter = meterRegistry.counter("cartrizo.submissions.rejected");
+    }
+
+    // ================= ACCEPT =================
+    // Runs on the request thread: spool, record, enqueue. Empty when the queue is full.
+    public Optional<CarSubmission> submit(String token,
+                                          String sellerType,
+                                          Car draft,
+                                          MultipartFile image,
+                                          MultipartFile certificate,
+                                          String certificateUploadId) {
+        if (image == null || image.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "An image is required");
+        }
+        // wrong file types are refused here, not reported later as a failed submission
+        MediaTypes.require(image, MediaTypes.IMAGES);
+        if (certificate != null && !certificate.isEmpty()) {
+            MediaTypes.require(certificate, MediaTypes.CERTIFICATES);
+        }
+        if (executor.getQueue().remainingCapacity() == 0) {
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+
+        CarSubmission submission = new CarSubmission();
+        submission.setStatus(CarSubmission.Status.QUEUED);
+        submission.setSellerType(sellerType.toUpperCase());
+        submission.setCreatedAt(Instant.now());
+        submission.setUpdatedAt(submission.getCreatedAt());
+        submission = submissionRepository.save(submission);
+
+        Path dir = null;
+        try {
+            // parts are already on disk (file-size-threshold=0); this is a move, not a copy
+            dir = Files.createDirectory(spoolDir.resolve(submission.getId()));
+            Spooled spooledImage = spool(image, dir.resolve("image"));
+            Spooled spooledCertificate = certificate == null || certificate.isEmpty()
+                    ? null
+                    : spool(certificate, dir.resolve("certificate"));
+
+            Job job = new Job(submission.getId(), token, submission.getSellerType(), draft,
+                    spooledImage, spooledCertificate, certificateUploadId, dir, System.nanoTime());
+            executor.execute(() -> processingTimer.record(() -> process(job)));
+            return Optional.of(submission);
+
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            deleteSpool(dir);
+            submissionRepository.delete(submission);
+            return Optional.empty();
+        } catch (IOException e) {
+            deleteSpool(dir);
+            submissionRepository.delete(submission);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public CarSubmission status(String submissionId) {
+        return submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
+    }
+
+    // ================= WORKER =================
+    private void process(Job job) {
+        mark(job.id, CarSubmission.Status.PROCESSING, null, null);
+
+        String imageId = null;
+        String certificateId = null;
+        try {
+            Car car = job.draft;
+            if (job.sellerType.equals("USER")) {
+                car.setSellerEmail(userEmail(job.token));
+                car.setBrand(car.getBrand() == null ? null : car.getBrand().trim());
+                car.setCondition("Used");
+                car.setSellerType("USER");
+
+                certificateId = certificate(job, car.getSellerEmail());
+                car.setCertificateId(certificateId);
+            } else {
+                String sellerEmail = job.token.replace("dummy-token-", "").trim().toLowerCase();
+                ShowroomDirectory.Entry showroom = showroomDirectory.byEmail(sellerEmail)
+                        .orElseThrow(() -> new SubmissionException("Showroom not found"));
+
+                car.setSellerEmail(sellerEmail);
+                car.setShowroomId(showroom.id());
+                car.setShowroomEmail(showroom.email());
+                car.setCondition("New");
+                car.setSellerType("SHOWROOM");
+            }
+            car.setApproved(false);
+
+            imageId = blobStore.storeMedia(job.image.resource(), job.image.filename);
+            car.setImageId(imageId);
+
+            Car saved = carRepository.save(car);
+            catalogEvents.publish(CarCatalogEvent.of(CarCatalogEvent.Type.ADDED, saved));
+
+            mark(job.id, CarSubmission.Status.DONE, saved.getId(), null);
+            completionTimer.record(System.nanoTime() - job.acceptedAt, TimeUnit.NANOSECONDS);
+
+        } catch (Exception e) {
+            blobStore.release(imageId);
+            blobStore.release(certificateId);
+
+            String reason;
+            if (e instanceof SubmissionException) {
+                invalidCounter.increment();
+                reason = e.getMessage();
+            } else if (e instanceof ResponseStatusException rse) {
+                invalidCounter.increment();
+                reason = rse.getReason();   // e.g. certificate upload not complete
+            } else {
+                // the seller only sees a generic reason; the cause stays in the log
+                errorCounter.increment();
+                System.out.println("❌ Submission " + job.id + " errored: " + e);
+                reason = "Upload failed";
+            }
+            System.out.println("❌ Submission " + job.id + " failed: " + reason);
+            mark(job.id, CarSubmission.Status.FAILED, null, reason);
+
+        } finally {
+            deleteSpool(job.dir);
+        }
+    }
+
+    private String userEmail(String token) {
+        try {
+            return jwtUtil.extractUsername(token);
+        } catch (Exception e) {
+            throw new SubmissionException("Invalid or expired token");
+        }
+    }
+
+    // Certificate from this request, or from a finished resumable upload the seller started
+    private String certificate(Job job, String sellerEmail) {
+        if (job.certificateUploadId != null && !job.certificateUploadId.isBlank()) {
+            return resumableUploadService.claim(job.certificateUploadId, sellerEmail);
+        }
+        if (job.certificate == null) {
+            return null;
+        }
+        return blobStore.storePrivate(job.certificate.resource(), job.certificate.filename);
+    }
+
+    private void mark(String id, CarSubmission.Status status, String carId, String error) {
+        Update update = new Update().set("status", status).set("updatedAt", Instant.now());
+        if (carId != null) update.set("carId", carId);
+        if (error != null) update.set("error", error);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), update, CarSubmission.class);
+    }
+
+    // ================= CLEANUP =================
+    @Scheduled(fixedDelayString = "${cartrizo.submissions.cleanup-interval:PT1H}")
+    public void cleanup() {
+        Instant now = Instant.now();
+
+        // open for this long means the job was lost with a restart
+        List<CarSubmission> stuck = submissionRepository.findByStatusInAndUpdatedAtBefore(OPEN, now.minus(stuckAfter));
+        for (CarSubmission submission : stuck) {
+            mark(submission.getId(), CarSubmission.Status.FAILED, null, "Interrupted, please submit the car again");
+        }
+
+        long removed = submissionRepository.deleteByStatusInAndUpdatedAtBefore(FINISHED, now.minus(retention));
+        if (!stuck.isEmpty() || removed > 0) {
+            System.out.println("🧹 Submissions: " + stuck.size() + " interrupted, " + removed + " expired");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        deleteSpool(spoolDir);
+    }
+
+    // ================= HELPERS =================
+    private static Spooled spool(MultipartFile part, Path target) throws IOException {
+        part.transferTo(target);
+        return new Spooled(target, part.getOriginalFilename());
+    }
+
+    private static void deleteSpool(Path dir) {
+        if (dir == null) return;
+        try {
+            FileSystemUtils.deleteRecursively(dir);
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not delete spool " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private record Spooled(Path path, String filename) {
+        FileSystemResource resource() {
+            return new FileSystemResource(path);
+        }
+    }
+
+    // Everything a worker needs; the token never leaves memory
+    private record Job(String id,
+                       String token,
+                       String sellerType,
+                       Car draft,
+                       Spooled image,
+                       Spooled certificate,
+                       String certificateUploadId,
+                       Path dir,
+                       long acceptedAt) {
+    }
+
+    // A reason the seller can act on, stored as the submission's error
+    private static class SubmissionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SubmissionException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+/**
+ * An in-memory structure derived from the approved catalog (or, for the
+ * showroom directory, the showrooms behind it).
+ * Built from Mongo by {@link CatalogWarmup} after startup and kept current
+ * afterwards from {@link com.example.demo.event.CarCatalogEvent}s.
+ */
+public interface CatalogIndex {
+
+    String name();
+
+    // Full (re)load from the database
+    void rebuild();
+}
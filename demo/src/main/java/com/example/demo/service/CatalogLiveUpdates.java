@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CatalogDelta;
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pushes catalog changes to browsers over STOMP, so listing pages can
+ * patch themselves instead of polling.
+ *
+ *   /topic/cars          APPROVED and UPDATED with the changed cards, REJECTED with ids only
+ *   /topic/cars/pending  ADDED, ids only (pending cars are not public)
+ *
+ * Each node pushes to its own WebSocket clients; with the change-stream
+ * event source every node sees every change, so no broker relay is needed.
+ */
+@Component
+public class CatalogLiveUpdates {
+
+    public static final String TOPIC = "/topic/cars";
+    public static final String PENDING_TOPIC = "/topic/cars/pending";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CarRepository carRepository;
+
+    public CatalogLiveUpdates(SimpMessagingTemplate messagingTemplate, CarRepository carRepository) {
+        this.messagingTemplate = messagingTemplate;
+        this.carRepository = carRepository;
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        String type = event.getType().name();
+        try {
+            switch (event.getType()) {
+                case ADDED -> messagingTemplate.convertAndSend(PENDING_TOPIC,
+                        new CatalogDelta(type, event.getCarIds(), List.of()));
+                case REJECTED -> messagingTemplate.convertAndSend(TOPIC,
+                        new CatalogDelta(type, event.getCarIds(), List.of()));
+                case APPROVED, UPDATED -> {
+                    // card fields only, and only cars the catalog actually shows
+                    List<Car> cards = carRepository.findApprovedByIds(event.getCarIds(), CarFields.CARD_PROFILE);
+                    if (!cards.isEmpty()) {
+                        messagingTemplate.convertAndSend(TOPIC, new CatalogDelta(type, event.getCarIds(), cards));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // a missed push only costs browsers their freshness, never the write
+            System.out.println("⚠️ Catalog push failed for " + event + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Car;
+import com.example.demo.model.CarTombstone;
+import com.example.demo.repository.CatalogSequence;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-time data migrations for the cars collection.
+ *
+ * Runs once the application is ready, on a background thread, so a slow or
+ * unreachable database never blocks startup. Every step is idempotent.
+ */
+@Component
+public class CatalogMigrations {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final CatalogSequence catalogSequence;
+    private final boolean enabled;
+
+    public CatalogMigrations(MongoTemplate mongoTemplate,
+                             FileStorageService fileStorageService,
+                             ImageVariantService imageVariantService,
+                             CatalogSequence catalogSequence,
+                             @Value("${cartrizo.migrations.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.catalogSequence = catalogSequence;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) return;
+
+        Thread worker = new Thread(this::runAll, "catalog-migrations");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void runAll() {
+        run("move inline images to GridFS", this::moveInlineImages);
+        run("move inline certificates to GridFS", this::moveInlineCertificates);
+        run("index image variants", this::indexImageVariants);
+        run("ensure car indexes", this::ensureCarIndexes);
+        run("backfill brand keys", this::backfillBrandKeys);
+        run("backfill createdAt", this::backfillCreatedAt);
+        run("backfill catalog versions", this::backfillVersions);
+    }
+
+    private void run(String name, Runnable step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            System.out.println("❌ MIGRATION FAILED (" + name + "): " + e.getMessage());
+        }
+    }
+
+    // ================= BASE64 IMAGE -> MEDIA STORE =================
+    private void moveInlineImages() {
+        Query query = new Query(Criteria.where("image").exists(true));
+        query.fields().include("image");
+
+        int moved = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, "cars")) {
+            Iterator<Document> docs = stream.iterator();
+            while (docs.hasNext()) {
+                Document doc = docs.next();
+                Object id = doc.get("_id");
+                String base64 = doc.getString("image");
+
+                Update update = new Update().unset("image");
+                if (base64 != null && !base64.isBlank()) {
+                    byte[] bytes = Base64.getDecoder().decode(base64);
+                    String imageId = fileStorageService.store(
+                            new ByteArrayInputStream(bytes), "car-" + id, guessType(bytes), null);
+                    update.set("imageId", imageId);
+                    imageVariantService.enqueue(imageId);
+                }
+
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), update, "cars");
+                moved++;
+            }
+        }
+
+        if (moved > 0) {
+            System.out.println("✅ Moved " + moved + " inline car images to GridFS");
+        }
+    }
+
+    // ================= INLINE CERTIFICATE -> PRIVATE FILE =================
+    private void moveInlineCertificates() {
+        Query query = new Query(Criteria.where("certificate").exists(true));
+        query.fields().include("certificate");
+
+        int moved = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, "cars")) {
+            Iterator<Document> docs = stream.iterator();
+            while (docs.hasNext()) {
+                Document doc = docs.next();
+                Object id = doc.get("_id");
+
+                Update update = new Update().unset("certificate");
+                if (doc.get("certificate") instanceof Binary binary && binary.length() > 0) {
+                    byte[] bytes = binary.getData();
+                    String certificateId = fileStorageService.store(
+                            new ByteArrayInputStream(bytes), "certificate-" + id, guessType(bytes),
+                            FileStorageService.privateMetadata(FileStorageService.CERTIFICATE_KIND));
+                    update.set("certificateId", certificateId);
+                }
+
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), update, "cars");
+                moved++;
+            }
+        }
+
+        if (moved > 0) {
+            System.out.println("✅ Moved " + moved + " inline certificates to GridFS");
+        }
+    }
+
+    // ================= VARIANT LOOKUP INDEX =================
+    private void indexImageVariants() {
+        mongoTemplate.indexOps("fs.files").ensureIndex(
+                new Index().on("metadata.parentId", Sort.Direction.ASC)
+                        .on("metadata.variant", Sort.Direction.ASC)
+                        .sparse()
+        );
+    }
+
+    // ================= CAR INDEXES =================
+    // auto-index-creation is off, so the @Indexed/@CompoundIndex
+    // declarations on Car are applied here
+    private void ensureCarIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : List.of(Car.class, CarTombstone.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+        }
+    }
+
+    // ================= BRAND KEY BACKFILL =================
+    private void backfillBrandKeys() {
+        Query query = new Query(Criteria.where("brandKey").exists(false));
+        query.fields().include("brand");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "cars");
+        int pending = 0;
+        int updated = 0;
+
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, "cars")) {
+            Iterator<Document> docs = stream.iterator();
+            while (docs.hasNext()) {
+                Document doc = docs.next();
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))),
+                        new Update().set("brandKey", BrandNormalizer.key(doc.getString("brand"))));
+
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "cars");
+                    updated += pending;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            updated += pending;
+        }
+
+        if (updated > 0) {
+            System.out.println("✅ Backfilled brandKey on " + updated + " cars");
+        }
+    }
+
+    // ================= CREATED-AT BACKFILL =================
+    // Older cars get the insert time embedded in their ObjectId,
+    // computed server-side in a single updateMany
+    private void backfillCreatedAt() {
+        long updated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("createdAt").exists(false)),
+                AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id")),
+                "cars"
+        ).getModifiedCount();
+
+        if (updated > 0) {
+            System.out.println("✅ Backfilled createdAt on " + updated + " cars");
+        }
+    }
+
+    // ================= VERSION BACKFILL =================
+    // Cars saved before delta sync get catalog versions in blocks, so a
+    // client syncing from 0 sees them
+    private void backfillVersions() {
+        Query query = new Query(Criteria.where("version").exists(false));
+        query.fields().include("_id");
+
+        List<Object> ids = new ArrayList<>(BATCH_SIZE);
+        int updated = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, "cars")) {
+            Iterator<Document> docs = stream.iterator();
+            while (docs.hasNext()) {
+                ids.add(docs.next().get("_id"));
+                if (ids.size() == BATCH_SIZE) {
+                    updated += assignVersions(ids);
+                    ids.clear();
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            updated += assignVersions(ids);
+        }
+
+        if (updated > 0) {
+            System.out.println("✅ Backfilled version on " + updated + " cars");
+        }
+    }
+
+    private int assignVersions(List<Object> ids) {
+        long version = catalogSequence.reserve(ids.size());
+        long first = version;
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "cars");
+            for (Object id : ids) {
+                // a car saved meanwhile already has a newer version
+                bulk.updateOne(new Query(Criteria.where("_id").is(id).and("version").exists(false)),
+                        new Update().set("version", version++));
+            }
+            return bulk.execute().getModifiedCount();
+        } finally {
+            catalogSequence.release(first);
+        }
+    }
+
+    private static String guessType(byte[] bytes) {
+        try {
+            String type = URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(bytes));
+            return type != null ? type : "image/jpeg";
+        } catch (IOException e) {
+            return "image/jpeg";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CatalogChanges;
+import com.example.demo.model.Car;
+import com.example.demo.model.CarTombstone;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.CatalogSequence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep their own copy of the catalog.
+ *
+ * Every car write takes a new number from {@link CatalogSequence}, and so
+ * does every rejection (as a tombstone). A client that remembers the last
+ * version it applied asks for everything above it: two range scans on
+ * version, merged in version order. Reads stop at the sequence's stable
+ * version, so a write that is still in flight on any node is never
+ * skipped over.
+ */
+@Service
+public class CatalogSyncService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final CarRepository carRepository;
+    private final CatalogSequence catalogSequence;
+    private final Duration tombstoneRetention;
+
+    public CatalogSyncService(CarRepository carRepository,
+                              CatalogSequence catalogSequence,
+                              @Value("${cartrizo.catalog.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.carRepository = carRepository;
+        this.catalogSequence = catalogSequence;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public CatalogChanges changesSince(long since, int limit, CarFields fields) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // removals before the floor are gone, so this client cannot catch up
+        if (since > 0 && since < catalogSequence.tombstoneFloor()) {
+            return CatalogChanges.reset(since);
+        }
+
+        long upTo = catalogSequence.stableVersion();
+        List<Car> cars = carRepository.findChangedSince(since, upTo, size + 1, fields);
+        List<CarTombstone> tombstones = carRepository.findRemovedSince(since, upTo, size + 1);
+
+        // merge both runs by version and keep the lowest `size`
+        List<Car> upserts = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        long version = since;
+        int c = 0;
+        int t = 0;
+        while (upserts.size() + removed.size() < size && (c < cars.size() || t < tombstones.size())) {
+            boolean takeCar = t == tombstones.size()
+                    || (c < cars.size() && cars.get(c).getVersion() < tombstones.get(t).getVersion());
+            if (takeCar) {
+                Car car = cars.get(c++);
+                upserts.add(car);
+                version = car.getVersion();
+            } else {
+                CarTombstone tombstone = tombstones.get(t++);
+                removed.add(tombstone.getId());
+                version = tombstone.getVersion();
+            }
+        }
+
+        boolean hasMore = c < cars.size() || t < tombstones.size();
+        if (!hasMore) {
+            // nothing else up to upTo; skip the versions that went to pending cars
+            version = Math.max(since, upTo);
+        }
+        return new CatalogChanges(since, version, hasMore, upserts, removed);
+    }
+
+    // ================= TOMBSTONE PURGE =================
+    @Scheduled(fixedDelayString = "${cartrizo.catalog.tombstone-purge-interval:PT6H}")
+    public void purgeTombstones() {
+        long purged = carRepository.purgeTombstones(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            System.out.println("🧹 Purged " + purged + " catalog tombstones");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads every {@link CatalogIndex} once the application is ready, on a
+ * background thread so startup never waits on the database. Until an index
+ * is loaded its owner falls back to querying Mongo.
+ */
+@Component
+public class CatalogWarmup {
+
+    private final List<CatalogIndex> indexes;
+    private final boolean enabled;
+
+    public CatalogWarmup(List<CatalogIndex> indexes,
+                         @Value("${cartrizo.warmup.enabled:true}") boolean enabled) {
+        this.indexes = indexes;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled || indexes.isEmpty()) return;
+
+        Thread worker = new Thread(this::rebuildAll, "catalog-warmup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void rebuildAll() {
+        for (CatalogIndex index : indexes) {
+            long start = System.currentTimeMillis();
+            try {
+                index.rebuild();
+                System.out.println("✅ " + index.name() + " loaded in " + (System.currentTimeMillis() - start) + " ms");
+            } catch (Exception e) {
+                System.out.println("❌ " + index.name() + " warm-up failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse, symmetric count of how many users favorited both car A and car B.
+ *
+ * Cars get dense int ordinals and each car keeps one {@link IntCountMap} row
+ * of co-favorited cars. Only the latest {@link #USER_WINDOW} favorites of a
+ * user are paired, so one heavy user adds at most that many entries per
+ * favorite. Every change re-ranks the rows it touched, so the top-N list of
+ * each car is always ready to read. {@link #compact()} trims rows that grew
+ * past {@link #MAX_ROW} entries, on both sides of each dropped pair. Not
+ * thread safe; callers lock around it.
+ */
+public class CoOccurrenceMatrix {
+
+    static final int USER_WINDOW = 50;
+    static final int MAX_ROW = 500;
+    static final int TOP_N = 20;
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] carIds = new String[64];
+    private IntCountMap[] rows = new IntCountMap[64];
+    private int[][] top = new int[64][];
+    private final BitSet removed = new BitSet();
+    private int nextOrdinal;
+
+    // user -> ordinals of their latest favorites, oldest first
+    private final Map<String, int[]> windows = new HashMap<>();
+
+    // ================= UPDATES =================
+    public void add(String user, String carId) {
+        int car = ordinal(carId);
+        if (removed.get(car)) return;
+
+        int[] window = windows.getOrDefault(user, NONE);
+        for (int other : window) {
+            if (other == car) return;
+        }
+
+        if (window.length == USER_WINDOW) {
+            unpair(window[0], window);
+            window = Arrays.copyOfRange(window, 1, window.length);
+        }
+
+        BitSet touched = new BitSet();
+        for (int other : window) {
+            if (removed.get(other)) continue;
+            rows[car].add(other, 1);
+            rows[other].add(car, 1);
+            touched.set(other);
+        }
+        touched.set(car);
+
+        int[] grown = Arrays.copyOf(window, window.length + 1);
+        grown[window.length] = car;
+        windows.put(user, grown);
+        rank(touched);
+    }
+
+    public void remove(String user, String carId) {
+        Integer car = ordinals.get(carId);
+        int[] window = windows.get(user);
+        if (car == null || window == null) return;
+
+        int at = -1;
+        for (int i = 0; i < window.length; i++) {
+            if (window[i] == car) at = i;
+        }
+        if (at < 0) return; // never paired, or already slid out of the window
+
+        unpair(car, window);
+
+        int[] shrunk = new int[window.length - 1];
+        System.arraycopy(window, 0, shrunk, 0, at);
+        System.arraycopy(window, at + 1, shrunk, at, window.length - at - 1);
+        if (shrunk.length == 0) windows.remove(user);
+        else windows.put(user, shrunk);
+    }
+
+    // The car left the catalog: forget its row and its place in other rows
+    public void removeCar(String carId) {
+        Integer car = ordinals.get(carId);
+        if (car == null || removed.get(car)) return;
+
+        BitSet touched = new BitSet();
+        rows[car].forEach((other, count) -> {
+            rows[other].remove(car);
+            touched.set(other);
+        });
+        rows[car] = null;
+        top[car] = null;
+        removed.set(car);
+        rank(touched);
+    }
+
+    // Undo the pairs between car and the rest of a user's window
+    private void unpair(int car, int[] window) {
+        if (removed.get(car)) return;
+
+        BitSet touched = new BitSet();
+        for (int other : window) {
+            if (other == car || removed.get(other)) continue;
+            rows[car].add(other, -1);
+            rows[other].add(car, -1);
+            touched.set(other);
+        }
+        touched.set(car);
+        rank(touched);
+    }
+
+    // Drops the weakest pairs of oversized rows from both cars' rows, so the
+    // matrix stays symmetric and a pair ranks the same from either side
+    public void compact() {
+        BitSet touched = new BitSet();
+        for (int car = 0; car < nextOrdinal; car++) {
+            IntCountMap row = rows[car];
+            if (row == null || row.size() <= MAX_ROW) continue;
+
+            long[] ranked = ranked(row);
+            int dropped = ranked.length - MAX_ROW;
+            for (int i = 0; i < dropped; i++) {
+                int other = (int) ranked[i];
+                rows[other].remove(car);
+                touched.set(other);
+            }
+
+            IntCountMap trimmed = new IntCountMap(MAX_ROW);
+            for (int i = dropped; i < ranked.length; i++) {
+                trimmed.add((int) ranked[i], (int) (ranked[i] >>> 32));
+            }
+            rows[car] = trimmed;
+            touched.set(car);
+        }
+        rank(touched);
+    }
+
+    // ================= READS =================
+    // Cars most often co-favorited with carId, strongest first
+    public List<String> alsoSaved(String carId, int limit) {
+        Integer car = ordinals.get(carId);
+        if (car == null || top[car] == null) return List.of();
+
+        int[] ranked = top[car];
+        List<String> result = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = 0; i < ranked.length && i < limit; i++) {
+            result.add(carIds[ranked[i]]);
+        }
+        return result;
+    }
+
+    // Cars co-favorited with the user's favorites, weighted by rank, excluding those favorites
+    public List<String> forUser(String user, int limit) {
+        int[] window = windows.get(user);
+        if (window == null) return List.of();
+
+        IntCountMap scores = new IntCountMap(window.length * TOP_N);
+        for (int car : window) {
+            int[] ranked = top[car];
+            if (ranked == null) continue;
+            for (int i = 0; i < ranked.length; i++) {
+                scores.add(ranked[i], TOP_N - i);
+            }
+        }
+        for (int car : window) {
+            scores.remove(car);
+        }
+
+        long[] ranked = ranked(scores);
+        List<String> result = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = ranked.length - 1; i >= 0 && result.size() < limit; i--) {
+            result.add(carIds[(int) ranked[i]]);
+        }
+        return result;
+    }
+
+    // ================= INTERNALS =================
+    private int ordinal(String carId) {
+        Integer existing = ordinals.get(carId);
+        if (existing != null) return existing;
+
+        if (nextOrdinal == carIds.length) {
+            int capacity = carIds.length * 2;
+            carIds = Arrays.copyOf(carIds, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            top = Arrays.copyOf(top, capacity);
+        }
+        int car = nextOrdinal++;
+        carIds[car] = carId;
+        rows[car] = new IntCountMap();
+        ordinals.put(carId, car);
+        return car;
+    }
+
+    private void rank(BitSet cars) {
+        for (int car = cars.nextSetBit(0); car >= 0; car = cars.nextSetBit(car + 1)) {
+            if (rows[car] == null) continue;
+
+            long[] ranked = ranked(rows[car]);
+            int n = Math.min(TOP_N, ranked.length);
+            int[] best = new int[n];
+            for (int i = 0; i < n; i++) {
+                best[i] = (int) ranked[ranked.length - 1 - i];
+            }
+            top[car] = best;
+        }
+    }
+
+    // Entries packed as count << 32 | key, ascending
+    private static long[] ranked(IntCountMap map) {
+        long[] packed = new long[map.size()];
+        int[] next = {0};
+        map.forEach((key, count) -> packed[next[0]++] = ((long) count << 32) | key);
+        Arrays.sort(packed);
+        return packed;
+    }
+
+    public int carCount() {
+        return nextOrdinal - removed.cardinality();
+    }
+
+    public int userCount() {
+        return windows.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Favorite;
+import com.example.demo.repository.FavoriteRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * "People who saved this also saved" and per-user picks, from a
+ * {@link CoOccurrenceMatrix} over the favorites collection.
+ *
+ * Loaded at startup, then kept current by {@link FavoriteService} on every
+ * toggle and by catalog events when a car is removed. The changes a rebuild
+ * hands back are the operations themselves, replayed in order (adding and
+ * removing are idempotent, so one the read already saw does no harm). Rows
+ * are trimmed on a schedule (cartrizo.favorites.compaction-interval).
+ */
+@Service
+public class FavoriteRecommender extends AbstractCatalogIndex<Consumer<CoOccurrenceMatrix>> {
+
+    static final int MAX_LIMIT = CoOccurrenceMatrix.TOP_N;
+
+    private final FavoriteRepository favoriteRepository;
+
+    private CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+
+    public FavoriteRecommender(FavoriteRepository favoriteRepository) {
+        this.favoriteRepository = favoriteRepository;
+    }
+
+    public List<String> alsoSaved(String carId, int limit) {
+        ensureLoaded();
+        synchronized (this) {
+            return matrix.alsoSaved(carId, clamp(limit));
+        }
+    }
+
+    public List<String> forUser(String email, int limit) {
+        if (email == null) return List.of();
+        ensureLoaded();
+        synchronized (this) {
+            return matrix.forUser(email.toLowerCase(), clamp(limit));
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    // ================= UPDATES =================
+    // Emails arrive lower-cased from FavoriteService
+    public synchronized void favoriteAdded(String email, String carId) {
+        apply(m -> m.add(email, carId));
+    }
+
+    public synchronized void favoriteRemoved(String email, String carId) {
+        apply(m -> m.remove(email, carId));
+    }
+
+    @EventListener
+    public synchronized void onCatalogChange(CarCatalogEvent event) {
+        if (event.getType() == CarCatalogEvent.Type.REJECTED) {
+            List<String> carIds = event.getCarIds();
+            apply(m -> carIds.forEach(m::removeCar));
+        }
+    }
+
+    // Caller holds the monitor. Before the first load there is no matrix to update; the load reads it from Mongo
+    private void apply(Consumer<CoOccurrenceMatrix> change) {
+        recordChange(change);
+        if (isLoaded()) change.accept(matrix);
+    }
+
+    @Scheduled(fixedDelayString = "${cartrizo.favorites.compaction-interval:PT10M}")
+    public synchronized void compact() {
+        matrix.compact();
+    }
+
+    // ================= MAINTENANCE =================
+    @Override
+    public String name() {
+        return "Favorites co-occurrence";
+    }
+
+    @Override
+    protected void loadAll() {
+        // oldest first, so each user's window ends on their latest favorites
+        List<Favorite> favorites = favoriteRepository.findAll(Sort.by("createdAt"));
+
+        CoOccurrenceMatrix fresh = new CoOccurrenceMatrix();
+        for (Favorite favorite : favorites) {
+            if (favorite.getUserEmail() == null || favorite.getCarId() == null) continue;
+            fresh.add(favorite.getUserEmail().toLowerCase(), favorite.getCarId());
+        }
+
+        synchronized (this) {
+            matrix = fresh;
+        }
+    }
+
+    // In order, under the monitor, so no live toggle interleaves with the replay
+    @Override
+    protected synchronized void applyChanged(List<Consumer<CoOccurrenceMatrix>> changes) {
+        changes.forEach(change -> change.accept(matrix));
+    }
+}
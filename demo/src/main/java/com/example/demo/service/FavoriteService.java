@@ -13,6 +13,9 @@ public class FavoriteService {
     @Autowired
     private FavoriteRepository favoriteRepository;
 
+    @Autowired
+    private FavoriteRecommender favoriteRecommender;
+
     public List<Favorite> getFavorites(String email) {
         if (email == null) return List.of();
         return favoriteRepository.findByUserEmail(email.toLowerCase());
@@ -26,20 +29,27 @@ public class FavoriteService {
                 .findByUserEmailAndCarId(lowEmail, carId)
                 .map(existing -> {
                     favoriteRepository.delete(existing);
+                    favoriteRecommender.favoriteRemoved(lowEmail, carId);
                     return false;
                 })
                 .orElseGet(() -> {
                     favoriteRepository.save(
                             new Favorite(lowEmail, carId, carType)
                     );
+                    favoriteRecommender.favoriteAdded(lowEmail, carId);
                     return true;
                 });
     }
 
     public void remove(String email, String carId) {
         if (email == null || carId == null) return;
+        String lowEmail = email.toLowerCase();
+
         favoriteRepository
-                .findByUserEmailAndCarId(email.toLowerCase(), carId)
-                .ifPresent(favoriteRepository::delete);
+                .findByUserEmailAndCarId(lowEmail, carId)
+                .ifPresent(existing -> {
+                    favoriteRepository.delete(existing);
+                    favoriteRecommender.favoriteRemoved(lowEmail, carId);
+                });
     }
 }
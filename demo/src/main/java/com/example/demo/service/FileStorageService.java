@@ -1,69 +1,92 @@
-/*
 package com.example.demo.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-
-
+import java.io.InputStream;
+import java.util.Optional;
 
 @Service
 public class FileStorageService {
 
+    public static final String CERTIFICATE_KIND = "certificate";
+
     private final GridFsTemplate gridFsTemplate;
+    private final GridFSBucket gridFSBucket;
 
-    @Autowired
-    public FileStorageService(GridFsTemplate gridFsTemplate) {
+    public FileStorageService(GridFsTemplate gridFsTemplate, GridFSBucket gridFSBucket) {
         this.gridFsTemplate = gridFsTemplate;
+        this.gridFSBucket = gridFSBucket;
     }
 
-   
     public String saveFile(MultipartFile file) throws IOException {
-        // Upload file to GridFS and return generated ObjectId as String
-        return gridFsTemplate.store(
-                file.getInputStream(),
-                file.getOriginalFilename(),
-                file.getContentType()
-        ).toString();
+        return saveFile(file, null);
     }
-}
-    */
-    package com.example.demo.service;
-
-import org.springframework.data.mongodb.gridfs.GridFsTemplate;
-import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import com.mongodb.client.gridfs.model.GridFSFile;
-
-import java.io.IOException;
 
-@Service
-public class FileStorageService {
+    // Multipart parts are spooled to disk, so this streams from the temp file
+    public String saveFile(MultipartFile file, Document metadata) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getOriginalFilename(), file.getContentType(), metadata);
+        }
+    }
 
-    private final GridFsTemplate gridFsTemplate;
+    // Metadata for files that /api/media must never serve (certificates, upload parts)
+    public static Document privateMetadata(String kind) {
+        return new Document("private", true).append("kind", kind);
+    }
 
-    public FileStorageService(GridFsTemplate gridFsTemplate) {
-        this.gridFsTemplate = gridFsTemplate;
+    public static boolean isPrivate(GridFSFile file) {
+        Document metadata = file.getMetadata();
+        return metadata != null && Boolean.TRUE.equals(metadata.getBoolean("private"));
     }
 
-    public String saveFile(MultipartFile file) throws IOException {
-        return gridFsTemplate.store(
-                file.getInputStream(),
-                file.getOriginalFilename(),
-                file.getContentType()
-        ).toString();
+    // Streams the content into GridFS chunks, nothing is buffered on heap
+    public String store(InputStream content, String filename, String contentType, Document metadata) {
+        return gridFsTemplate.store(content, filename, contentType, metadata).toHexString();
     }
 
     public byte[] getFile(String id) throws IOException {
         GridFSFile file = gridFsTemplate.findOne(
-                new org.springframework.data.mongodb.core.query.Query(
-                        org.springframework.data.mongodb.core.query.Criteria.where("_id").is(id)
-                )
+                new Query(Criteria.where("_id").is(id))
         );
         return gridFsTemplate.getResource(file).getInputStream().readAllBytes();
     }
-}
 
+    // Metadata only; the content is read lazily through getResource
+    public Optional<GridFSFile> find(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+                gridFsTemplate.findOne(new Query(Criteria.where("_id").is(new ObjectId(id))))
+        );
+    }
+
+    // Lookup by file metadata, e.g. metadata.parentId
+    public Optional<GridFSFile> findOne(Query query) {
+        return Optional.ofNullable(gridFsTemplate.findOne(query));
+    }
+
+    public GridFsResource getResource(GridFSFile file) {
+        return gridFsTemplate.getResource(file);
+    }
+
+    public void deleteWhere(Query query) {
+        gridFsTemplate.delete(query);
+    }
+
+    public void delete(String id) {
+        if (ObjectId.isValid(id)) {
+            gridFSBucket.delete(new ObjectId(id));
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates fixed-width JPEG variants of uploaded car images.
+ *
+ * Jobs run on a small bounded pool so uploads return before resizing is
+ * done. Until a variant exists, /api/media serves the original instead.
+ *
+ * The header is read before any pixels: images above
+ * cartrizo.media.variants.max-pixels are skipped (a small file can claim
+ * huge dimensions), and large ones are subsampled while decoding so only
+ * about the widest variant's worth of pixels ever reaches the heap.
+ */
+@Service
+public class ImageVariantService {
+
+    public enum Variant {
+        THUMB(160), CARD(480), DETAIL(1024);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public String key() {
+            return name().toLowerCase();
+        }
+
+        public static Optional<Variant> parse(String size) {
+            if (size == null) return Optional.empty();
+            for (Variant v : values()) {
+                if (v.key().equalsIgnoreCase(size.trim())) return Optional.of(v);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    private final Timer processingTimer;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public ImageVariantService(FileStorageService fileStorageService,
+                               MeterRegistry meterRegistry,
+                               @Value("${cartrizo.media.variants.workers:2}") int workers,
+                               @Value("${cartrizo.media.variants.queue-capacity:200}") int queueCapacity,
+                               @Value("${cartrizo.media.variants.max-pixels:40000000}") long maxPixels) {
+        this.fileStorageService = fileStorageService;
+        this.maxPixels = maxPixels;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-variants-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("cartrizo.media.variants.queue.depth", executor, e -> e.getQueue().size())
+                .description("Image variant jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("cartrizo.media.variants.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("cartrizo.media.variants.processing")
+                .description("Time to decode, resize and store all variants of one image")
+                .register(meterRegistry);
+        this.failedCounter = meterRegistry.counter("cartrizo.media.variants.failed");
+        this.rejectedCounter = meterRegistry.counter("cartrizo.media.variants.rejected");
+    }
+
+    // Queue variant generation; never blocks the caller
+    public void enqueue(String originalId) {
+        if (originalId == null) return;
+        try {
+            executor.execute(() -> processingTimer.record(() -> generate(originalId)));
+        } catch (RejectedExecutionException e) {
+            // queue full: the original keeps being served for every size
+            rejectedCounter.increment();
+            System.out.println("⚠️ Variant queue full, skipping image " + originalId);
+        }
+    }
+
+    // Stored variant file, if it has been generated yet
+    public Optional<GridFSFile> findVariant(String originalId, Variant variant) {
+        return fileStorageService.findOne(new Query(
+                Criteria.where("metadata.parentId").is(originalId)
+                        .and("metadata.variant").is(variant.key())));
+    }
+
+    private void generate(String originalId) {
+        try {
+            Optional<GridFSFile> original = fileStorageService.find(originalId);
+            if (original.isEmpty()) return;
+
+            BufferedImage source;
+            try (InputStream in = fileStorageService.getResource(original.get()).getInputStream()) {
+                source = decode(in, Variant.DETAIL.getWidth());
+            }
+            if (source == null) return; // not a decodable image
+
+            for (Variant variant : Variant.values()) {
+                if (findVariant(originalId, variant).isPresent()) continue;
+
+                // never upscale; small originals get a re-encoded copy
+                int width = Math.min(variant.getWidth(), source.getWidth());
+                byte[] jpeg = encodeJpeg(resize(source, width));
+
+                Document metadata = new Document("parentId", originalId)
+                        .append("variant", variant.key())
+                        .append("width", width);
+                fileStorageService.store(new ByteArrayInputStream(jpeg),
+                        originalId + "-" + variant.key() + ".jpg", "image/jpeg", metadata);
+            }
+        } catch (Exception e) {
+            failedCounter.increment();
+            System.out.println("❌ Variant generation failed for " + originalId + ": " + e.getMessage());
+        }
+    }
+
+    // Decodes at no less than minWidth (when the original is that wide), skipping the rest of the pixels
+    private BufferedImage decode(InputStream in, int minWidth) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException(width + "x" + height + " is over the " + maxPixels + " pixel limit");
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / minWidth);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+
+        // JPEG has no alpha channel, always draw onto RGB
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int -> int counter (linear probing, backward-shift
+ * deletion), so sparse counts don't box every key and value. Keys must be
+ * non-negative; a count that drops to zero removes its key.
+ */
+public class IntCountMap {
+
+    private static final int EMPTY = -1;
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int key, int count);
+    }
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+
+    public IntCountMap() {
+        this(8);
+    }
+
+    public IntCountMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    // Adds delta to key's count and returns the new count
+    public int add(int key, int delta) {
+        int slot = find(key);
+        if (slot >= 0) {
+            int count = counts[slot] + delta;
+            if (count <= 0) {
+                removeSlot(slot);
+                return 0;
+            }
+            counts[slot] = count;
+            return count;
+        }
+        if (delta <= 0) return 0;
+
+        if ((size + 1) * 4 > keys.length * 3) grow();
+        slot = -slot - 1;
+        keys[slot] = key;
+        counts[slot] = delta;
+        size++;
+        return delta;
+    }
+
+    public void remove(int key) {
+        int slot = find(key);
+        if (slot >= 0) removeSlot(slot);
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.visit(keys[i], counts[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Slot holding key, or -(insertion slot) - 1
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        // pull later entries of the same probe run back into the hole
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) add(oldKeys[i], oldCounts[i]);
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * k-nearest-neighbour index over fixed-length float vectors.
+ *
+ * The bulk of the points sit in a balanced KD-tree stored implicitly in one
+ * permutation array (each node is the median of its range, split on the
+ * dimension with the widest spread). Points added later go to a small
+ * pending buffer that is scanned linearly; removed tree points are
+ * tombstoned. {@link #needsRebalance()} says when the buffer or tombstones
+ * have grown enough that building a fresh tree is worth it. Not thread safe;
+ * callers lock around it.
+ */
+public class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final int dims;
+
+    // tree part, immutable apart from tombstones
+    private final String[] ids;
+    private final float[] coords;      // point i at [i * dims, (i + 1) * dims)
+    private final int[] order;         // implicit tree: node of range [lo, hi) is order[(lo + hi) >>> 1]
+    private final int[] splitDims;     // split dimension, indexed like order
+    private final BitSet dead = new BitSet();
+    private final Map<String, Integer> treeSlots = new HashMap<>();
+    private int deadCount;
+
+    // pending part, scanned linearly
+    private final List<String> pendingIds = new ArrayList<>();
+    private float[] pendingCoords = new float[0];
+    private final Map<String, Integer> pendingSlots = new HashMap<>();
+
+    public KdTree(int dims) {
+        this(dims, new String[0], new float[0]);
+    }
+
+    public KdTree(int dims, String[] ids, float[] coords) {
+        this.dims = dims;
+        this.ids = ids;
+        this.coords = coords;
+        this.order = new int[ids.length];
+        this.splitDims = new int[ids.length];
+
+        for (int i = 0; i < ids.length; i++) {
+            order[i] = i;
+            treeSlots.put(ids[i], i);
+        }
+        build(0, ids.length);
+    }
+
+    // ================= BUILD =================
+    private void build(int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) return;
+
+        int dim = widestDim(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, dim);
+        splitDims[mid] = dim;
+
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestDim(int lo, int hi) {
+        int best = 0;
+        float bestSpread = -1;
+        for (int d = 0; d < dims; d++) {
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                float v = coords[order[i] * dims + d];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    // Quickselect: order[k] ends up holding the median along dim for [lo, hi]
+    private void select(int lo, int hi, int k, int dim) {
+        while (lo < hi) {
+            float pivot = value(order[(lo + hi) >>> 1], dim);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (value(order[i], dim) < pivot) i++;
+                while (value(order[j], dim) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private float value(int point, int dim) {
+        return coords[point * dims + dim];
+    }
+
+    // ================= UPDATES =================
+    public void put(String id, float[] vector) {
+        remove(id);
+        int slot = pendingIds.size();
+        pendingIds.add(id);
+        if (pendingCoords.length < (slot + 1) * dims) {
+            pendingCoords = Arrays.copyOf(pendingCoords, Math.max(16 * dims, pendingCoords.length * 2));
+        }
+        System.arraycopy(vector, 0, pendingCoords, slot * dims, dims);
+        pendingSlots.put(id, slot);
+    }
+
+    public void remove(String id) {
+        Integer slot = treeSlots.remove(id);
+        if (slot != null) {
+            dead.set(slot);
+            deadCount++;
+            return;
+        }
+
+        slot = pendingSlots.remove(id);
+        if (slot != null) {
+            // move the last pending point into the hole
+            int last = pendingIds.size() - 1;
+            String moved = pendingIds.remove(last);
+            if (slot != last) {
+                pendingIds.set(slot, moved);
+                System.arraycopy(pendingCoords, last * dims, pendingCoords, slot * dims, dims);
+                pendingSlots.put(moved, slot);
+            }
+        }
+    }
+
+    public float[] vector(String id) {
+        Integer slot = treeSlots.get(id);
+        if (slot != null) return Arrays.copyOfRange(coords, slot * dims, (slot + 1) * dims);
+
+        slot = pendingSlots.get(id);
+        if (slot != null) return Arrays.copyOfRange(pendingCoords, slot * dims, (slot + 1) * dims);
+        return null;
+    }
+
+    public boolean needsRebalance() {
+        int treeSize = ids.length;
+        return pendingIds.size() > Math.max(256, treeSize / 8) || deadCount > Math.max(256, treeSize / 4);
+    }
+
+    // ================= QUERY =================
+    private static final class Neighbours {
+        final int k;
+        final float[] dist;
+        final String[] ids;
+        int size;
+
+        Neighbours(int k) {
+            this.k = k;
+            this.dist = new float[k];
+            this.ids = new String[k];
+        }
+
+        float worst() {
+            return size < k ? Float.MAX_VALUE : dist[size - 1];
+        }
+
+        // sorted insert; k is small
+        void offer(String id, float d) {
+            if (d >= worst()) return;
+            int i = Math.min(size, k - 1);
+            while (i > 0 && dist[i - 1] > d) {
+                dist[i] = dist[i - 1];
+                ids[i] = ids[i - 1];
+                i--;
+            }
+            dist[i] = d;
+            ids[i] = id;
+            if (size < k) size++;
+        }
+    }
+
+    // Ids of the k points closest to query, nearest first, skipping exclude
+    public List<String> nearest(float[] query, int k, String exclude) {
+        if (k <= 0) return List.of();
+        Neighbours best = new Neighbours(k);
+
+        search(query, 0, ids.length, best, exclude);
+        for (int i = 0; i < pendingIds.size(); i++) {
+            String id = pendingIds.get(i);
+            if (!id.equals(exclude)) best.offer(id, distance(query, pendingCoords, i));
+        }
+
+        return Arrays.asList(Arrays.copyOf(best.ids, best.size));
+    }
+
+    private void search(float[] query, int lo, int hi, Neighbours best, String exclude) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                visit(query, order[i], best, exclude);
+            }
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int point = order[mid];
+        int dim = splitDims[mid];
+        float diff = query[dim] - value(point, dim);
+
+        visit(query, point, best, exclude);
+        if (diff < 0) {
+            search(query, lo, mid, best, exclude);
+            if (diff * diff < best.worst()) search(query, mid + 1, hi, best, exclude);
+        } else {
+            search(query, mid + 1, hi, best, exclude);
+            if (diff * diff < best.worst()) search(query, lo, mid, best, exclude);
+        }
+    }
+
+    private void visit(float[] query, int point, Neighbours best, String exclude) {
+        if (dead.get(point) || ids[point].equals(exclude)) return;
+        best.offer(ids[point], distance(query, coords, point));
+    }
+
+    private float distance(float[] query, float[] data, int point) {
+        float sum = 0;
+        int base = point * dims;
+        for (int d = 0; d < dims; d++) {
+            float diff = query[d] - data[base + d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    public int size() {
+        return ids.length - deadCount + pendingIds.size();
+    }
+
+    public int dims() {
+        return dims;
+    }
+}
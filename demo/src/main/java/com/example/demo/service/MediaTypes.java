@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The only types uploads are stored and served as, told apart by their
+ * leading bytes. What the uploader claims is never trusted: an SVG or HTML
+ * file labelled image/png is refused, and anything stored before this
+ * check that is not on the list is served as a download.
+ */
+public final class MediaTypes {
+
+    public static final String JPEG = MediaType.IMAGE_JPEG_VALUE;
+    public static final String PNG = MediaType.IMAGE_PNG_VALUE;
+    public static final String WEBP = "image/webp";
+    public static final String PDF = MediaType.APPLICATION_PDF_VALUE;
+
+    public static final Set<String> IMAGES = Set.of(JPEG, PNG, WEBP);
+    public static final Set<String> CERTIFICATES = Set.of(JPEG, PNG, WEBP, PDF);
+
+    // enough leading bytes for every signature below
+    public static final int HEAD_LENGTH = 12;
+
+    private MediaTypes() {
+    }
+
+    // Type recognised from the first bytes of a file, or null
+    public static String sniff(byte[] head, int length) {
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) return JPEG;
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return PNG;
+        if (startsWith(head, length, '%', 'P', 'D', 'F', '-')) return PDF;
+        if (length >= 12 && startsWith(head, length, 'R', 'I', 'F', 'F')
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return WEBP;
+        return null;
+    }
+
+    public static String sniff(InputStreamSource source) {
+        try (InputStream in = source.getInputStream()) {
+            byte[] head = in.readNBytes(HEAD_LENGTH);
+            return sniff(head, head.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The sniffed type if it is allowed; 415 otherwise
+    public static String require(String sniffed, Set<String> allowed) {
+        if (sniffed == null || !allowed.contains(sniffed)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Only " + describe(allowed) + " files are accepted");
+        }
+        return sniffed;
+    }
+
+    public static String require(InputStreamSource source, Set<String> allowed) {
+        return require(sniff(source), allowed);
+    }
+
+    // Declared types are only a first filter before any bytes arrive
+    public static boolean isAllowed(String contentType, Set<String> allowed) {
+        return contentType != null && allowed.contains(normalize(contentType));
+    }
+
+    // Allowed stored types as themselves; everything else as octet-stream (to be sent as an attachment)
+    public static MediaType servable(String storedType, Set<String> allowed) {
+        return isAllowed(storedType, allowed)
+                ? MediaType.parseMediaType(normalize(storedType))
+                : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private static String normalize(String contentType) {
+        int params = contentType.indexOf(';');
+        String type = params < 0 ? contentType : contentType.substring(0, params);
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String describe(Set<String> allowed) {
+        StringBuilder names = new StringBuilder();
+        for (String type : new String[] {JPEG, PNG, WEBP, PDF}) {
+            if (!allowed.contains(type)) continue;
+            if (!names.isEmpty()) names.append(", ");
+            names.append(type.substring(type.indexOf('/') + 1).toUpperCase(Locale.ROOT));
+        }
+        return names.toString();
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... signature) {
+        if (length < signature.length) return false;
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) return false;
+        }
+        return true;
+    }
+}
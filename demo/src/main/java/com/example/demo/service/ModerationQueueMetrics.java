@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Size and age of the moderation backlog (cars with approved=false).
+ *
+ * Mongo is asked on a schedule, not on every scrape: a count and a
+ * one-row read of the oldest pending car, both on the approved/createdAt
+ * index. The age gauge is computed from that car's createdAt when it is
+ * read, so it keeps growing between refreshes while nobody moderates.
+ */
+@Component
+public class ModerationQueueMetrics {
+
+    private static final CarFields CREATED_AT = CarFields.of("createdAt");
+
+    private final CarRepository carRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicReference<Instant> oldest = new AtomicReference<>();
+
+    public ModerationQueueMetrics(CarRepository carRepository, MeterRegistry meterRegistry) {
+        this.carRepository = carRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // the age gauge holds on to this, so register once construction is done
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("cartrizo.moderation.queue.depth", depth, AtomicLong::get)
+                .description("Cars waiting for approval")
+                .register(meterRegistry);
+        Gauge.builder("cartrizo.moderation.queue.oldest.age", this, ModerationQueueMetrics::oldestAgeSeconds)
+                .description("How long the oldest pending car has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cartrizo.moderation.metrics-interval:PT1M}")
+    public void refresh() {
+        try {
+            depth.set(carRepository.countByApprovedFalse());
+
+            List<Car> head = carRepository.findPendingPage(null, 1, CREATED_AT).getItems();
+            oldest.set(head.isEmpty() ? null : head.get(0).getCreatedAt());
+        } catch (Exception e) {
+            // keep the last values; the next run tries again
+            System.out.println("⚠️ Moderation queue metrics not refreshed: " + e.getMessage());
+        }
+    }
+
+    private double oldestAgeSeconds() {
+        Instant since = oldest.get();
+        if (since == null) return 0;
+        return Math.max(0, Duration.between(since, Instant.now()).toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BulkModerationResult;
+import com.example.demo.dto.ModerationOutcome;
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.event.CatalogEventBus;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Approves and rejects cars in batches.
+ *
+ * A batch costs a constant number of round trips however many ids it has:
+ * approving is one projected read, one bulk update and a read-back of the
+ * versions it wrote; rejecting is one claim, one read of the claimed media
+ * refs, one deleteMany and the tombstones. Car documents are never loaded or
+ * written back whole. Outcomes and the one catalog event per batch cover
+ * exactly the ids this call changed.
+ */
+@Service
+public class ModerationService {
+
+    static final int MAX_BATCH = 1000;
+
+    private final CarRepository carRepository;
+    private final BlobStore blobStore;
+    private final CatalogEventBus catalogEvents;
+    private final Counter leakedMedia;
+
+    public ModerationService(CarRepository carRepository,
+                             BlobStore blobStore,
+                             CatalogEventBus catalogEvents,
+                             MeterRegistry meterRegistry) {
+        this.carRepository = carRepository;
+        this.blobStore = blobStore;
+        this.catalogEvents = catalogEvents;
+        this.leakedMedia = meterRegistry.counter("cartrizo.moderation.media.leaked");
+    }
+
+    // ================= APPROVE =================
+    public BulkModerationResult approve(List<String> ids) {
+        List<String> batch = batch(ids);
+
+        Map<String, Boolean> approved = approvalStates(batch);
+        List<String> pending = batch.stream()
+                .filter(id -> Boolean.FALSE.equals(approved.get(id)))
+                .toList();
+
+        Set<String> changed = new HashSet<>();
+        if (!pending.isEmpty()) {
+            changed.addAll(carRepository.approvePending(pending));
+            if (!changed.isEmpty()) {
+                catalogEvents.publish(new CarCatalogEvent(CarCatalogEvent.Type.APPROVED,
+                        pending.stream().filter(changed::contains).toList(), List.of()));
+            }
+
+            // approved or deleted by someone else since the first read: ask again
+            List<String> missed = pending.stream().filter(id -> !changed.contains(id)).toList();
+            if (!missed.isEmpty()) {
+                missed.forEach(approved::remove);
+                approved.putAll(approvalStates(missed));
+            }
+        }
+
+        List<ModerationOutcome> results = new ArrayList<>(batch.size());
+        for (String id : batch) {
+            ModerationOutcome.Status status = changed.contains(id) ? ModerationOutcome.Status.APPROVED
+                    : approved.get(id) == null ? ModerationOutcome.Status.NOT_FOUND
+                    : ModerationOutcome.Status.ALREADY_APPROVED;
+            results.add(new ModerationOutcome(id, status));
+        }
+        return new BulkModerationResult(changed.size(), results);
+    }
+
+    // ================= REJECT =================
+    // Rejected cars are deleted; their image and certificate references are released
+    public BulkModerationResult reject(List<String> ids) {
+        List<String> batch = batch(ids);
+
+        // only the cars this call removed: a concurrent rejection reports (and releases) its own
+        List<Car> removed = carRepository.removeByIds(batch);
+        Set<String> rejected = new HashSet<>();
+        for (Car car : removed) {
+            rejected.add(car.getId());
+        }
+
+        if (!removed.isEmpty()) {
+            catalogEvents.publish(new CarCatalogEvent(CarCatalogEvent.Type.REJECTED,
+                    removed.stream().map(Car::getId).toList(), List.of()));
+
+            // shared blobs stay until their last car is gone
+            for (Car car : removed) {
+                release(car.getId(), car.getImageId());
+                release(car.getId(), car.getCertificateId());
+            }
+        }
+
+        List<ModerationOutcome> results = new ArrayList<>(batch.size());
+        for (String id : batch) {
+            results.add(new ModerationOutcome(id, rejected.contains(id)
+                    ? ModerationOutcome.Status.REJECTED
+                    : ModerationOutcome.Status.NOT_FOUND));
+        }
+        return new BulkModerationResult(removed.size(), results);
+    }
+
+    // The car is gone either way; a reference we failed to drop is counted, not fatal
+    private void release(String carId, String ref) {
+        try {
+            blobStore.release(ref);
+        } catch (Exception e) {
+            leakedMedia.increment();
+            System.out.println("❌ Media " + ref + " of rejected car " + carId + " is still referenced: " + e.getMessage());
+        }
+    }
+
+    // id -> approved flag; ids without a car are left out
+    private Map<String, Boolean> approvalStates(List<String> ids) {
+        Map<String, Boolean> approved = new HashMap<>();
+        for (Car car : carRepository.findApprovalStates(ids)) {
+            approved.put(car.getId(), Boolean.TRUE.equals(car.getApproved()));
+        }
+        return approved;
+    }
+
+    // Distinct, non-blank ids in request order
+    private static List<String> batch(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).map(String::trim).filter(id -> !id.isEmpty()).forEach(unique::add);
+
+        if (unique.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+        if (unique.size() > MAX_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH + " ids per request");
+        }
+        return List.copyOf(unique);
+    }
+}
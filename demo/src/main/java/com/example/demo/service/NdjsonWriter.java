@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a Mongo cursor as newline-delimited JSON (application/x-ndjson).
+ *
+ * Each document is serialized straight into the response through one
+ * JsonGenerator, so heap use stays flat however many rows there are. The
+ * first row is flushed immediately to get the first byte out early.
+ */
+@Component
+public class NdjsonWriter {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // we decide when to flush, not Jackson
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <T> StreamingResponseBody write(Supplier<Stream<T>> source, Function<T, ?> mapper) {
+        return out -> {
+            // the cursor is opened on the async thread that writes the response
+            try (Stream<T> rows = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null); // rows are separated by '\n' below
+
+                int written = 0;
+                Iterator<T> it = rows.iterator();
+                while (it.hasNext()) {
+                    rowWriter.writeValue(generator, mapper.apply(it.next()));
+                    generator.writeRaw('\n');
+
+                    if (++written == 1 || written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.flush();
+            }
+        };
+    }
+}
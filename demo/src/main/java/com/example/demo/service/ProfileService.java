@@ -7,7 +7,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Base64;
 
 @Service
 public class ProfileService {
@@ -15,6 +14,9 @@ public class ProfileService {
     @Autowired
     private ProfileRepository profileRepository;
 
+    @Autowired
+    private BlobStore blobStore;
+
     /* ================= CREATE ================= */
     public Profile createProfile(
             String fullName,
@@ -39,7 +41,7 @@ public class ProfileService {
         profile.setAddress(address);
 
         if (image != null && !image.isEmpty()) {
-            profile.setImage(Base64.getEncoder().encodeToString(image.getBytes()));
+            profile.setImageId(blobStore.storeMedia(image));
         }
 
         return profileRepository.save(profile);
@@ -69,7 +71,10 @@ public class ProfileService {
         profile.setCity(city);
 
         if (image != null && !image.isEmpty()) {
-            profile.setImage(Base64.getEncoder().encodeToString(image.getBytes()));
+            String previous = profile.getImageId();
+            profile.setImageId(blobStore.storeMedia(image));
+            profile.setImage(null); // drop the legacy Base64 copy
+            blobStore.release(previous);
         }
 
         return profileRepository.save(profile);
@@ -0,0 +1,42 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Changes that reach an in-memory index while it is being rebuilt.
+ *
+ * A rebuild reads Mongo and then swaps in a fresh copy, so a change applied
+ * to the old copy in between is lost with it. Indexes still apply changes
+ * as usual, record them here too, and replay what was recorded on the
+ * fresh copy once it is swapped in. Outside a rebuild nothing is kept.
+ */
+final class RebuildJournal<T> {
+
+    private List<T> pending; // null while no rebuild is running
+
+    synchronized void begin() {
+        pending = new ArrayList<>();
+    }
+
+    synchronized void record(T change) {
+        if (pending != null) pending.add(change);
+    }
+
+    synchronized void recordAll(Collection<? extends T> changes) {
+        if (pending != null) pending.addAll(changes);
+    }
+
+    // Changes since begin() or the last drain, oldest first; recording stops once a drain comes back empty
+    synchronized List<T> drain() {
+        List<T> changes = pending == null ? List.of() : pending;
+        pending = changes.isEmpty() ? null : new ArrayList<>();
+        return changes;
+    }
+
+    // Stops recording (after the last replay, or when the rebuild failed)
+    synchronized void end() {
+        pending = null;
+    }
+}
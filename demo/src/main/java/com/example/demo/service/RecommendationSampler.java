@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks random approved cars for the home page.
+ *
+ * Keeps the ids of all approved New/Used cars in memory (an array plus an
+ * id -> slot map, so add and remove are O(1)) and draws k distinct slots per
+ * request, then fetches only those cars with a projection. Until the pool is
+ * loaded, Mongo's $sample stage is used instead.
+ */
+@Service
+public class RecommendationSampler implements CatalogIndex {
+
+    static final List<String> CONDITIONS = List.of("New", "Used");
+
+    private final CarRepository carRepository;
+
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private volatile boolean loaded;
+
+    public RecommendationSampler(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    public List<Car> sample(int count, CarFields fields) {
+        if (!loaded) {
+            return carRepository.sampleApproved(CONDITIONS, count, fields);
+        }
+
+        return carRepository.findApprovedInOrder(pickIds(count), fields);
+    }
+
+    // Floyd's algorithm: k distinct slots with k random draws
+    synchronized List<String> pickIds(int count) {
+        int n = ids.size();
+        int k = Math.min(count, n);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Set<Integer> chosen = new LinkedHashSet<>();
+        for (int j = n - k; j < n; j++) {
+            int slot = random.nextInt(j + 1);
+            chosen.add(chosen.contains(slot) ? j : slot);
+        }
+
+        List<String> picked = new ArrayList<>(k);
+        for (int slot : chosen) {
+            picked.add(ids.get(slot));
+        }
+        return picked;
+    }
+
+    // ================= POOL MAINTENANCE =================
+    @Override
+    public String name() {
+        return "Recommendation pool";
+    }
+
+    @Override
+    public void rebuild() {
+        List<String> approved = carRepository.findApprovedIds(CONDITIONS);
+        synchronized (this) {
+            ids.clear();
+            slots.clear();
+            approved.forEach(this::add);
+            loaded = true;
+        }
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        switch (event.getType()) {
+            case APPROVED -> event.getCarIds().forEach(this::addSynchronized);
+            case REJECTED -> event.getCarIds().forEach(this::removeSynchronized);
+            default -> { }
+        }
+    }
+
+    private synchronized void addSynchronized(String id) {
+        add(id);
+    }
+
+    private synchronized void removeSynchronized(String id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) return;
+
+        // move the last id into the freed slot
+        String last = ids.remove(ids.size() - 1);
+        if (slot < ids.size()) {
+            ids.set(slot, last);
+            slots.put(last, slot);
+        }
+    }
+
+    private void add(String id) {
+        if (slots.putIfAbsent(id, ids.size()) == null) {
+            ids.add(id);
+        }
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UploadSession;
+import com.example.demo.repository.UploadSessionRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Chunked, resumable uploads for large certificates over flaky connections.
+ *
+ *   POST /api/uploads                  {filename, contentType, size} -> status
+ *   PUT  /api/uploads/{id}?offset=N    raw chunk bytes               -> status
+ *   GET  /api/uploads/{id}             status; resume from "received"
+ *   POST /api/uploads/{id}/complete    joins the chunks              -> status
+ *
+ * Completed uploads go through {@link BlobStore}, so a certificate that was
+ * uploaded before is not stored again. The finished upload is attached to a car by passing its id as
+ * certificateUploadId. A session belongs to the signed-in user who started
+ * it: anyone else gets 404, and only the owner's own submission can claim it. Each chunk streams straight into its own private
+ * GridFS file and is only recorded once fully stored, so a dropped
+ * connection loses at most the chunk in flight. Sessions idle for longer
+ * than cartrizo.upload.session-ttl are removed together with their files.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final String PART_KIND = "upload-part";
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FileStorageService fileStorageService;
+    private final BlobStore blobStore;
+
+    private final long maxSize;
+    private final long chunkSize;
+    private final Duration sessionTtl;
+
+    public ResumableUploadService(UploadSessionRepository uploadSessionRepository,
+                                  MongoTemplate mongoTemplate,
+                                  FileStorageService fileStorageService,
+                                  BlobStore blobStore,
+                                  @Value("${cartrizo.upload.max-size:25MB}") DataSize maxSize,
+                                  @Value("${cartrizo.upload.chunk-size:1MB}") DataSize chunkSize,
+                                  @Value("${cartrizo.upload.session-ttl:24h}") Duration sessionTtl) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.fileStorageService = fileStorageService;
+        this.blobStore = blobStore;
+        this.maxSize = maxSize.toBytes();
+        this.chunkSize = chunkSize.toBytes();
+        this.sessionTtl = sessionTtl;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public UploadSession start(String owner, String filename, String contentType, long size) {
+        if (size <= 0 || size > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + maxSize + " bytes");
+        }
+        if (!isCertificateType(contentType)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Certificates must be a PDF, JPEG, PNG or WebP");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setOwnerEmail(normalizeOwner(owner));
+        session.setFilename(filename);
+        session.setContentType(contentType);
+        session.setSize(size);
+        session.setCreatedAt(Instant.now());
+        session.setUpdatedAt(session.getCreatedAt());
+        return uploadSessionRepository.save(session);
+    }
+
+    public UploadSession status(String uploadId, String owner) {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getOwnerEmail() != null && session.getOwnerEmail().equals(normalizeOwner(owner)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+    }
+
+    // ================= CHUNKS =================
+    public UploadSession append(String uploadId, String owner, long offset, long length, InputStream body) {
+        UploadSession session = status(uploadId, owner);
+
+        if (session.getFileId() != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload already complete");
+        }
+        if (offset != session.getReceived()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Expected offset " + session.getReceived());
+        }
+        if (length <= 0 || length > chunkSize || offset + length > session.getSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Chunks need a Content-Length of 1.." + chunkSize + " bytes within the declared size");
+        }
+
+        CountingInputStream counted = new CountingInputStream(body);
+        Document metadata = FileStorageService.privateMetadata(PART_KIND).append("uploadId", uploadId);
+        String partId = fileStorageService.store(counted, uploadId + "-" + offset, "application/octet-stream", metadata);
+
+        if (counted.count != length) {
+            fileStorageService.delete(partId);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk ended after " + counted.count + " bytes");
+        }
+
+        // only record the chunk if nobody else stored this offset meanwhile
+        UploadSession updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId).and("received").is(offset).and("fileId").is(null)),
+                new Update().inc("received", length).push("partIds", partId).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+
+        if (updated == null) {
+            fileStorageService.delete(partId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk at offset " + offset + " was already stored");
+        }
+        return updated;
+    }
+
+    public UploadSession complete(String uploadId, String owner) {
+        UploadSession session = status(uploadId, owner);
+        if (session.getFileId() != null) {
+            return session;
+        }
+        if (session.getReceived() != session.getSize()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Received " + session.getReceived() + " of " + session.getSize() + " bytes");
+        }
+
+        // joined twice by the blob store: once to hash (and sniff the real type), once to store if new
+        List<String> partIds = session.getPartIds();
+        String fileId = blobStore.storePrivate(() -> join(partIds), session.getFilename());
+
+        UploadSession updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId).and("fileId").is(null)),
+                new Update().set("fileId", fileId).set("partIds", List.of()).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+
+        if (updated == null) {
+            // a concurrent complete won; drop our reference
+            blobStore.release(fileId);
+            return status(uploadId, owner);
+        }
+        session.getPartIds().forEach(fileStorageService::delete);
+        return updated;
+    }
+
+    // Hands the finished file over to the owner's car; removing the session is the claim, so only one car gets it
+    public String claim(String uploadId, String owner) {
+        UploadSession session = owner == null ? null : mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(uploadId)
+                        .and("ownerEmail").is(normalizeOwner(owner))
+                        .and("fileId").ne(null)),
+                UploadSession.class);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload " + uploadId + " is not complete");
+        }
+        return session.getFileId();
+    }
+
+    // ================= CLEANUP =================
+    @Scheduled(fixedDelayString = "${cartrizo.upload.cleanup-interval:PT1H}")
+    public void removeAbandoned() {
+        List<UploadSession> stale = uploadSessionRepository.findByUpdatedAtBefore(Instant.now().minus(sessionTtl));
+        for (UploadSession session : stale) {
+            session.getPartIds().forEach(fileStorageService::delete);
+            blobStore.release(session.getFileId());
+            uploadSessionRepository.delete(session);
+        }
+        if (!stale.isEmpty()) {
+            System.out.println("🧹 Removed " + stale.size() + " abandoned uploads");
+        }
+    }
+
+    // ================= HELPERS =================
+    // Declared type only; the bytes are checked when the upload completes
+    public static boolean isCertificateType(String contentType) {
+        return MediaTypes.isAllowed(contentType, MediaTypes.CERTIFICATES);
+    }
+
+    private static String normalizeOwner(String owner) {
+        return owner == null ? null : owner.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Opens each part only when the previous one is used up
+    private InputStream join(List<String> partIds) {
+        Iterator<String> parts = partIds.iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return parts.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String partId = parts.next();
+                try {
+                    return fileStorageService.find(partId)
+                            .map(fileStorageService::getResource)
+                            .orElseThrow(() -> new IllegalStateException("Missing upload part " + partId))
+                            .getInputStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
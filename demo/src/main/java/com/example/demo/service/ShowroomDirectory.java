@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ShowroomDTO;
+import com.example.demo.model.Showroom;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Every showroom's public contact details, in memory, by id and by email.
+ *
+ * Loaded by {@link CatalogWarmup} and reloaded on a schedule (to pick up
+ * changes made on other nodes); signups and updates on this node are put
+ * in directly. Password hashes are never read. A miss (not loaded yet, or
+ * a showroom created elsewhere since the last reload) falls back to Mongo
+ * and is remembered.
+ */
+@Service
+public class ShowroomDirectory implements CatalogIndex {
+
+    // contact fields only
+    public record Entry(String id, String name, String email, String phone, String address) {
+
+        public ShowroomDTO toContact() {
+            ShowroomDTO dto = new ShowroomDTO();
+            dto.setName(name);
+            dto.setEmail(email);
+            dto.setPhone(phone);
+            dto.setAddress(address);
+            return dto;
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // swapped whole on rebuild
+    private volatile Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private volatile Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    public ShowroomDirectory(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public String name() {
+        return "Showroom directory";
+    }
+
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Map<String, Entry> ids = new ConcurrentHashMap<>();
+            Map<String, Entry> emails = new ConcurrentHashMap<>();
+            for (Showroom showroom : mongoTemplate.find(contactQuery(new Query()), Showroom.class)) {
+                Entry entry = entryOf(showroom);
+                ids.put(entry.id(), entry);
+                if (entry.email() != null) emails.put(entry.email(), entry);
+            }
+            byId = ids;
+            byEmail = emails;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cartrizo.showrooms.refresh-interval:PT10M}",
+               initialDelayString = "${cartrizo.showrooms.refresh-interval:PT10M}")
+    public void refresh() {
+        rebuild();
+    }
+
+    // ================= LOOKUPS =================
+    public Optional<Entry> byId(String id) {
+        if (id == null) return Optional.empty();
+        Entry entry = byId.get(id);
+        if (entry != null) return Optional.of(entry);
+
+        return Optional.ofNullable(mongoTemplate.findOne(
+                contactQuery(new Query(Criteria.where("_id").is(id))), Showroom.class)).map(this::remember);
+    }
+
+    public Optional<Entry> byEmail(String email) {
+        if (email == null) return Optional.empty();
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        Entry entry = byEmail.get(key);
+        if (entry != null) return Optional.of(entry);
+
+        return Optional.ofNullable(mongoTemplate.findOne(
+                contactQuery(new Query(Criteria.where("email").is(key))), Showroom.class)).map(this::remember);
+    }
+
+    // Known ids only, in no particular order; all misses are read in one $in
+    public Map<String, Entry> byIds(Collection<String> ids) {
+        Map<String, Entry> found = new LinkedHashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String id : ids) {
+            if (id == null) continue;
+            Entry entry = byId.get(id);
+            if (entry != null) found.put(id, entry);
+            else missing.add(id);
+        }
+
+        if (!missing.isEmpty()) {
+            List<Showroom> loaded = mongoTemplate.find(
+                    contactQuery(new Query(Criteria.where("_id").in(missing))), Showroom.class);
+            for (Showroom showroom : loaded) {
+                Entry entry = remember(showroom);
+                found.put(entry.id(), entry);
+            }
+        }
+        return found;
+    }
+
+    // ================= WRITES ON THIS NODE =================
+    public void put(Showroom showroom) {
+        Entry previous = byId.get(showroom.getId());
+        if (previous != null && previous.email() != null) {
+            byEmail.remove(previous.email());
+        }
+        remember(showroom);
+    }
+
+    public void remove(String id) {
+        Entry previous = byId.remove(id);
+        if (previous != null && previous.email() != null) {
+            byEmail.remove(previous.email());
+        }
+    }
+
+    private Entry remember(Showroom showroom) {
+        Entry entry = entryOf(showroom);
+        byId.put(entry.id(), entry);
+        if (entry.email() != null) byEmail.put(entry.email(), entry);
+        return entry;
+    }
+
+    private static Query contactQuery(Query query) {
+        query.fields().include("name", "email", "phone", "address");
+        return query;
+    }
+
+    private static Entry entryOf(Showroom showroom) {
+        String email = showroom.getEmail() == null ? null : showroom.getEmail().trim().toLowerCase(Locale.ROOT);
+        return new Entry(showroom.getId(), showroom.getName(), email, showroom.getPhone(), showroom.getAddress());
+    }
+}
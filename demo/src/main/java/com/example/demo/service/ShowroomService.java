@@ -13,8 +13,13 @@ public class ShowroomService {
     @Autowired
     private ShowroomRepository showroomRepository;
 
+    @Autowired
+    private ShowroomDirectory showroomDirectory;
+
     public Showroom saveShowroom(Showroom showroom) {
-        return showroomRepository.save(showroom);
+        Showroom saved = showroomRepository.save(showroom);
+        showroomDirectory.put(saved);
+        return saved;
     }
 
     public List<Showroom> getAllShowrooms() {
@@ -29,5 +34,6 @@ public class ShowroomService {
 
     public void deleteShowroom(String id) {
         showroomRepository.deleteById(id);
+        showroomDirectory.remove(id);
     }
 }
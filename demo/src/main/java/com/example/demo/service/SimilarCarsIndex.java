@@ -0,0 +1,252 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Similar cars" for the details pages.
+ *
+ * Each approved car becomes a feature vector: log price, year, log mileage
+ * and engine capacity (each standardized over the catalog, missing values
+ * at the mean) plus one-hot fuel and body type, scaled so a differing
+ * category costs as much as one standard deviation. Fuel and body type are
+ * free text, so only the most common values get a slot of their own and the
+ * rest share an "other" slot. Neighbours come from a {@link KdTree}. The
+ * raw features are kept so the tree, and the scaling,
+ * can be rebuilt in memory once enough updates have piled up.
+ */
+@Service
+public class SimilarCarsIndex extends AbstractCatalogIndex<String> {
+
+    static final int MAX_LIMIT = 24;
+    static final CarFields FEATURE_FIELDS =
+            CarFields.parse("price,year,mileage,engineCapacity,fuelType,bodyType");
+    static final int MAX_CATEGORIES = 16; // slots per category feature, besides "other"
+
+    private static final float CATEGORY_WEIGHT = (float) Math.sqrt(0.5);
+
+    private record Features(double[] numeric, String fuelType, String bodyType) {
+
+        static Features of(Car car) {
+            return new Features(new double[] {
+                    car.getPrice() == null || car.getPrice() <= 0 ? Double.NaN : Math.log(car.getPrice()),
+                    car.getYear() == null ? Double.NaN : car.getYear(),
+                    car.getMileage() == null || car.getMileage() < 0 ? Double.NaN : Math.log1p(car.getMileage()),
+                    car.getEngineCapacity() == null ? Double.NaN : car.getEngineCapacity()
+            }, category(car.getFuelType()), category(car.getBodyType()));
+        }
+
+        private static String category(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Scaling and category slots, fixed between rebuilds
+    private static final class FeatureSpace {
+        final double[] mean;
+        final double[] scale;
+        final Map<String, Integer> fuelSlots = new HashMap<>();
+        final Map<String, Integer> bodySlots = new HashMap<>();
+        final int otherFuel;
+        final int otherBody;
+        final int dims;
+
+        FeatureSpace(Collection<Features> all) {
+            int numeric = 4;
+            mean = new double[numeric];
+            scale = new double[numeric];
+
+            for (int d = 0; d < numeric; d++) {
+                double sum = 0;
+                double sumSq = 0;
+                int n = 0;
+                for (Features f : all) {
+                    double v = f.numeric()[d];
+                    if (Double.isNaN(v)) continue;
+                    sum += v;
+                    sumSq += v * v;
+                    n++;
+                }
+                mean[d] = n == 0 ? 0 : sum / n;
+                double variance = n == 0 ? 0 : sumSq / n - mean[d] * mean[d];
+                scale[d] = variance > 1e-9 ? 1 / Math.sqrt(variance) : 1;
+            }
+
+            int next = numeric;
+            next = assignSlots(all.stream().map(Features::fuelType).toList(), fuelSlots, next);
+            otherFuel = next++;
+            next = assignSlots(all.stream().map(Features::bodyType).toList(), bodySlots, next);
+            otherBody = next++;
+            dims = next;
+        }
+
+        // The MAX_CATEGORIES most common values, most common first
+        private static int assignSlots(List<String> values, Map<String, Integer> slots, int next) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String value : values) {
+                if (value != null) counts.merge(value, 1, Integer::sum);
+            }
+            List<String> common = counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(MAX_CATEGORIES)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (String value : common) {
+                slots.put(value, next++);
+            }
+            return next;
+        }
+
+        float[] encode(Features f) {
+            float[] v = new float[dims];
+            for (int d = 0; d < mean.length; d++) {
+                double x = f.numeric()[d];
+                v[d] = Double.isNaN(x) ? 0 : (float) ((x - mean[d]) * scale[d]);
+            }
+            // rare values, and those first seen after the last rebuild, count as "other"
+            if (f.fuelType() != null) v[fuelSlots.getOrDefault(f.fuelType(), otherFuel)] = CATEGORY_WEIGHT;
+            if (f.bodyType() != null) v[bodySlots.getOrDefault(f.bodyType(), otherBody)] = CATEGORY_WEIGHT;
+            return v;
+        }
+    }
+
+    private final CarRepository carRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Features> features = new LinkedHashMap<>();
+    private FeatureSpace space = new FeatureSpace(List.of());
+    private KdTree tree = new KdTree(space.dims);
+
+    public SimilarCarsIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    // Ids of the approved cars closest to carId, closest first; empty if carId isn't listed
+    public List<String> similar(String carId, int limit) {
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            float[] query = tree.vector(carId);
+            if (query == null) return List.of();
+            return tree.nearest(query, Math.min(Math.max(limit, 1), MAX_LIMIT), carId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= MAINTENANCE =================
+    @Override
+    public String name() {
+        return "Similar cars index";
+    }
+
+    @Override
+    protected void loadAll() {
+        List<Car> cars = carRepository.findApproved(null, FEATURE_FIELDS);
+
+        lock.writeLock().lock();
+        try {
+            features.clear();
+            for (Car car : cars) {
+                features.put(car.getId(), Features.of(car));
+            }
+            rebuildTree();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void applyChanged(List<String> carIds) {
+        Set<String> distinct = new HashSet<>(carIds);
+        List<Car> found = carRepository.findApprovedByIds(distinct, FEATURE_FIELDS);
+        update(() -> {
+            distinct.forEach(this::remove);
+            found.forEach(this::put);
+        });
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        switch (event.getType()) {
+            case APPROVED, UPDATED -> {
+                recordChanges(event.getCarIds());
+                List<Car> cars = event.getCars().isEmpty()
+                        ? carRepository.findApprovedByIds(event.getCarIds(), FEATURE_FIELDS)
+                        : event.getCars();
+                update(() -> cars.forEach(this::put));
+            }
+            case REJECTED -> {
+                recordChanges(event.getCarIds());
+                update(() -> event.getCarIds().forEach(this::remove));
+            }
+            default -> { }
+        }
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (tree.needsRebalance()) rebuildTree();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Car car) {
+        if (Boolean.FALSE.equals(car.getApproved())) {
+            remove(car.getId());
+        } else {
+            Features f = Features.of(car);
+            features.put(car.getId(), f);
+            tree.put(car.getId(), space.encode(f));
+        }
+    }
+
+    private void remove(String carId) {
+        features.remove(carId);
+        tree.remove(carId);
+    }
+
+    // Caller holds the write lock
+    private void rebuildTree() {
+        FeatureSpace fresh = new FeatureSpace(features.values());
+
+        String[] ids = new String[features.size()];
+        float[] coords = new float[features.size() * fresh.dims];
+        int i = 0;
+        for (Map.Entry<String, Features> entry : features.entrySet()) {
+            ids[i] = entry.getKey();
+            System.arraycopy(fresh.encode(entry.getValue()), 0, coords, i * fresh.dims, fresh.dims);
+            i++;
+        }
+
+        space = fresh;
+        tree = new KdTree(fresh.dims, ids, coords);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.Suggestion;
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Typeahead over brand, model and "brand model" of approved cars.
+ *
+ * Popularity counts are updated in place on catalog events. Queries read an
+ * immutable snapshot: suggestions sorted by their lower-case text, so a
+ * prefix is one contiguous range found by binary search. One- and two-letter
+ * prefixes, whose ranges are the widest, have their top entries precomputed.
+ * The snapshot is rebuilt lazily on the first query after a change.
+ */
+@Service
+public class SuggestionIndex extends AbstractCatalogIndex<String> {
+
+    static final int MAX_LIMIT = 10;
+    private static final int PRECOMPUTED_PREFIX = 2;
+    private static final CarFields SUGGEST_FIELDS = CarFields.parse("brand,model");
+
+    private static final class Entry {
+        final String text;      // normalized, used for prefix matching
+        final String display;   // as first submitted
+        final String type;
+        int count;
+
+        Entry(String text, String display, String type) {
+            this.text = text;
+            this.display = display;
+            this.type = type;
+        }
+    }
+
+    private record Snapshot(String[] keys, Suggestion[] suggestions, Map<String, Suggestion[]> shortPrefixes) {}
+
+    private static final Comparator<Suggestion> BY_POPULARITY =
+            Comparator.comparingInt(Suggestion::getCount).thenComparing(Suggestion::getText, Comparator.reverseOrder());
+
+    private final CarRepository carRepository;
+
+    // "type|normalized text" -> entry, plus which entries each car counted toward
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, String[]> carEntries = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty = true;
+
+    public SuggestionIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        int k = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        if (prefix.isEmpty()) return List.of();
+
+        ensureLoaded();
+        Snapshot current = dirty ? refreshSnapshot() : snapshot;
+
+        if (prefix.length() <= PRECOMPUTED_PREFIX) {
+            Suggestion[] top = current.shortPrefixes().get(prefix);
+            return top == null ? List.of() : Arrays.asList(top).subList(0, Math.min(k, top.length));
+        }
+        return topK(current, prefix, k);
+    }
+
+    private static List<Suggestion> topK(Snapshot current, String prefix, int k) {
+        String[] keys = current.keys();
+        int from = lowerBound(keys, prefix);
+
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(k + 1, BY_POPULARITY);
+        for (int i = from; i < keys.length && keys[i].startsWith(prefix); i++) {
+            top.offer(current.suggestions()[i]);
+            if (top.size() > k) top.poll();
+        }
+
+        Suggestion[] result = new Suggestion[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll();
+        }
+        return Arrays.asList(result);
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private synchronized Snapshot refreshSnapshot() {
+        if (!dirty) return snapshot;
+
+        List<Entry> live = entries.values().stream()
+                .filter(e -> e.count > 0)
+                .sorted(Comparator.comparing(e -> e.text))
+                .toList();
+
+        String[] keys = new String[live.size()];
+        Suggestion[] suggestions = new Suggestion[live.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Entry e = live.get(i);
+            keys[i] = e.text;
+            suggestions[i] = new Suggestion(e.display, e.type, e.count);
+        }
+
+        Snapshot base = new Snapshot(keys, suggestions, Map.of());
+        Map<String, Suggestion[]> shortPrefixes = new HashMap<>();
+        for (String key : keys) {
+            for (int len = 1; len <= Math.min(PRECOMPUTED_PREFIX, key.length()); len++) {
+                shortPrefixes.computeIfAbsent(key.substring(0, len),
+                        p -> topK(base, p, MAX_LIMIT).toArray(new Suggestion[0]));
+            }
+        }
+
+        snapshot = new Snapshot(keys, suggestions, shortPrefixes);
+        dirty = false;
+        return snapshot;
+    }
+
+    // ================= MAINTENANCE =================
+    @Override
+    public String name() {
+        return "Suggestion index";
+    }
+
+    @Override
+    protected void loadAll() {
+        // read outside the monitor: a virtual thread blocked on Mongo must not pin its carrier
+        List<Car> cars = carRepository.findApproved(null, SUGGEST_FIELDS);
+        synchronized (this) {
+            entries.clear();
+            carEntries.clear();
+            cars.forEach(this::add);
+            dirty = true;
+        }
+    }
+
+    @Override
+    protected void applyChanged(List<String> carIds) {
+        Set<String> distinct = new HashSet<>(carIds);
+        apply(distinct, carRepository.findApprovedByIds(distinct, SUGGEST_FIELDS));
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        switch (event.getType()) {
+            case APPROVED, UPDATED -> {
+                recordChanges(event.getCarIds());
+                List<Car> cars = event.getCars().isEmpty()
+                        ? carRepository.findApprovedByIds(event.getCarIds(), SUGGEST_FIELDS)
+                        : event.getCars();
+                apply(List.of(), cars);
+            }
+            case REJECTED -> {
+                recordChanges(event.getCarIds());
+                apply(event.getCarIds(), List.of());
+            }
+            default -> { }
+        }
+    }
+
+    // Uncounts removedIds, then (re)counts cars
+    private synchronized void apply(Collection<String> removedIds, List<Car> cars) {
+        removedIds.forEach(this::remove);
+        cars.forEach(this::add);
+        dirty = true;
+    }
+
+    private void add(Car car) {
+        remove(car.getId()); // UPDATED: drop the old brand/model first
+
+        List<String> keys = new ArrayList<>(3);
+        String brand = clean(car.getBrand());
+        String model = clean(car.getModel());
+
+        if (brand != null) keys.add(count("BRAND", brand));
+        if (model != null) keys.add(count("MODEL", model));
+        if (brand != null && model != null) keys.add(count("BRAND_MODEL", brand + " " + model));
+
+        carEntries.put(car.getId(), keys.toArray(new String[0]));
+    }
+
+    private void remove(String carId) {
+        String[] keys = carEntries.remove(carId);
+        if (keys == null) return;
+        for (String key : keys) {
+            Entry e = entries.get(key);
+            if (e != null && --e.count <= 0) entries.remove(key);
+        }
+    }
+
+    private String count(String type, String text) {
+        // brands are grouped by canonical key so "Merc" and "Mercedes-Benz" share a count
+        String identity = type.equals("BRAND") ? BrandNormalizer.key(text) : normalize(text);
+        String key = type + "|" + identity;
+        entries.computeIfAbsent(key, k -> new Entry(normalize(text), text.replaceAll("\\s+", " "), type)).count++;
+        return key;
+    }
+
+    private static String clean(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
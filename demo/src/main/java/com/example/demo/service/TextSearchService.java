@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keyword search over approved cars ("sunroof diesel SUV").
+ *
+ * Wraps a {@link Bm25Index} over title, model, description and features
+ * (plus brand, fuel and body type so those words match too). The index is
+ * rebuilt from Mongo at startup, with tokenizing spread over the common
+ * fork-join pool, and updated incrementally from catalog events.
+ */
+@Service
+public class TextSearchService extends AbstractCatalogIndex<String> {
+
+    static final CarFields TEXT_FIELDS =
+            CarFields.parse("title,model,description,features,brand,fuelType,bodyType");
+
+    private final CarRepository carRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bm25Index index = new Bm25Index();
+
+    public TextSearchService(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    // Ids of matching approved cars, best match first
+    public List<String> search(String query, int limit) {
+        List<String> tokens = Bm25Index.tokenize(query);
+        if (tokens.isEmpty()) return List.of();
+
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= MAINTENANCE =================
+    @Override
+    public String name() {
+        return "Text search index";
+    }
+
+    @Override
+    protected void loadAll() {
+        List<Car> cars = carRepository.findApproved(null, TEXT_FIELDS);
+
+        List<Map.Entry<String, List<String>>> docs = cars.parallelStream()
+                .map(car -> (Map.Entry<String, List<String>>) new SimpleEntry<>(car.getId(), tokens(car)))
+                .toList();
+
+        Bm25Index fresh = new Bm25Index();
+        docs.forEach(doc -> fresh.put(doc.getKey(), doc.getValue()));
+
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void applyChanged(List<String> carIds) {
+        Set<String> distinct = new HashSet<>(carIds);
+        apply(distinct, carRepository.findApprovedByIds(distinct, TEXT_FIELDS));
+    }
+
+    @EventListener
+    public void onCatalogChange(CarCatalogEvent event) {
+        switch (event.getType()) {
+            case APPROVED, UPDATED -> {
+                recordChanges(event.getCarIds());
+                List<Car> cars = event.getCars().isEmpty()
+                        ? carRepository.findApprovedByIds(event.getCarIds(), TEXT_FIELDS)
+                        : event.getCars();
+                apply(List.of(), cars);
+            }
+            case REJECTED -> {
+                recordChanges(event.getCarIds());
+                apply(event.getCarIds(), List.of());
+            }
+            default -> { }
+        }
+    }
+
+    // Drops removedIds, then (re)indexes cars
+    private void apply(Collection<String> removedIds, List<Car> cars) {
+        lock.writeLock().lock();
+        try {
+            removedIds.forEach(index::remove);
+            for (Car car : cars) {
+                if (Boolean.FALSE.equals(car.getApproved())) {
+                    index.remove(car.getId());
+                } else {
+                    index.put(car.getId(), tokens(car));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> tokens(Car car) {
+        String features = car.getFeatures() == null ? null : String.join(" ", car.getFeatures());
+        return Bm25Index.tokenize(
+                car.getTitle(), car.getModel(), car.getBrand(), car.getFuelType(),
+                car.getBodyType(), features, car.getDescription());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global cap on upload bytes being received at once (cartrizo.upload.budget).
+ *
+ * An upload reserves its Content-Length before its body is read and gives it
+ * back when the request ends. When the budget is spent, new uploads wait up
+ * to cartrizo.upload.wait and are then turned away with 503, so a burst of
+ * seller uploads queues up instead of piling onto the heap and disk.
+ */
+@Component
+public class UploadBudget {
+
+    private static final int UNIT = 1024; // permits are KiB
+
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final Duration wait;
+
+    private final Counter rejected;
+
+    public UploadBudget(MeterRegistry meterRegistry,
+                        @Value("${cartrizo.upload.budget:128MB}") DataSize budget,
+                        @Value("${cartrizo.upload.wait:2s}") Duration wait) {
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budget.toBytes() / UNIT));
+        this.permits = new Semaphore(totalPermits, true); // fair: big uploads aren't starved by small ones
+        this.wait = wait;
+
+        meterRegistry.gauge("cartrizo.upload.inflight.bytes", permits,
+                p -> (double) (totalPermits - p.availablePermits()) * UNIT);
+        this.rejected = meterRegistry.counter("cartrizo.upload.rejected");
+    }
+
+    // A held reservation; close it when the request is done
+    public interface Reservation extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // Empty when the budget stayed exhausted for the whole wait
+    public Optional<Reservation> reserve(long bytes) throws InterruptedException {
+        int needed = (int) Math.min(totalPermits, Math.max(1, (bytes + UNIT - 1) / UNIT));
+        if (!permits.tryAcquire(needed, wait.toMillis(), TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(() -> permits.release(needed));
+    }
+}
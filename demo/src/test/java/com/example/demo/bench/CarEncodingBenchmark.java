@@ -0,0 +1,125 @@
+package com.example.demo.bench;
+
+import com.example.demo.model.Car;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time and wire size of a page of catalog cards as JSON, CBOR and
+ * Smile, each with and without gzip.
+ *
+ * Not run by surefire. Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.bench.CarEncodingBenchmark
+ *
+ * Payload sizes are printed once per trial, before the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100", "1000"})
+    public int cars;
+
+    private ObjectMapper mapper;
+    private List<Car> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        page = sampleCars(cars);
+
+        byte[] raw = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s x%d: %,d bytes, %,d gzipped%n", format, cars, raw.length, gzip(raw).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    // Shaped like the "card" projection the list pages request
+    private static List<Car> sampleCars(int count) {
+        String[] brands = {"Hyundai", "Maruti Suzuki", "Tata", "Mahindra", "Honda", "Toyota", "Kia"};
+        String[] models = {"Creta", "Swift", "Nexon", "XUV700", "City", "Innova Crysta", "Seltos"};
+        String[] fuels = {"Petrol", "Diesel", "Electric", "CNG"};
+        String[] bodies = {"SUV", "Hatchback", "Sedan", "MUV"};
+
+        Random random = new Random(7);
+        List<Car> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int b = random.nextInt(brands.length);
+            Car car = new Car();
+            car.setId(String.format("%024x", 0x65a0_0000_0000_0000L + i));
+            car.setBrand(brands[b]);
+            car.setModel(models[b]);
+            car.setTitle(brands[b] + " " + models[b] + " " + (2015 + random.nextInt(10)));
+            car.setYear(2015 + random.nextInt(10));
+            car.setPrice(300_000 + random.nextInt(3_000_000) * 1.0);
+            car.setFuelType(fuels[random.nextInt(fuels.length)]);
+            car.setBodyType(bodies[random.nextInt(bodies.length)]);
+            car.setMileage(random.nextInt(150_000));
+            car.setCondition(random.nextBoolean() ? "Used" : "New");
+            car.setSellerType(random.nextBoolean() ? "USER" : "SHOWROOM");
+            car.setImageId(String.format("%024x", 0x66b0_0000_0000_0000L + i));
+            car.setCreatedAt(Instant.ofEpochSecond(1_700_000_000L + i * 60L));
+            list.add(car);
+        }
+        return list;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CarEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
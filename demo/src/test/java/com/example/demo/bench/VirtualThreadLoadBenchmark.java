@@ -0,0 +1,172 @@
+package com.example.demo.bench;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and tail latency of blocking request handling on Tomcat's
+ * platform pool (200 threads, the Spring Boot default) versus one virtual
+ * thread per request, with every request blocked for a fixed "Mongo" delay.
+ *
+ * The handler sleeps exactly like MongoConfig's LatencyInjector
+ * (cartrizo.mongo.injected-latency), so no database is needed; the numbers
+ * describe the threading model, not our queries. Against the real app, set
+ * CARTRIZO_MONGO_INJECTED_LATENCY and flip CARTRIZO_VIRTUAL_THREADS instead.
+ *
+ * Not run by surefire. Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.bench.VirtualThreadLoadBenchmark [latencyMs] [clients] [seconds]
+ */
+public class VirtualThreadLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int latencyMs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+
+        System.out.printf("latency %d ms, %d concurrent clients, %d s per mode%n", latencyMs, clients, seconds);
+        System.out.printf("%-9s %10s %9s %9s %9s %7s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (boolean virtual : new boolean[] {false, true}) {
+            Result result = run(virtual, latencyMs, clients, seconds);
+            System.out.printf("%-9s %10.0f %9.1f %9.1f %9.1f %7d%n",
+                    virtual ? "virtual" : "platform", result.throughput,
+                    result.percentile(50), result.percentile(99), result.percentile(100), result.errors);
+        }
+    }
+
+    private static Result run(boolean virtual, int latencyMs, int clients, int seconds) throws Exception {
+        Tomcat tomcat = server(virtual, latencyMs);
+        tomcat.start();
+        int port = tomcat.getConnector().getLocalPort();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cars/1")).build();
+
+        // warm up connections and JIT, then measure
+        load(client, request, clients, 3, null);
+
+        LatencyLog log = new LatencyLog(clients * seconds * 1000 / Math.max(latencyMs, 1) + clients);
+        long start = System.nanoTime();
+        int errors = load(client, request, clients, seconds, log);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        tomcat.stop();
+        tomcat.destroy();
+        return new Result(log.sorted(), log.count() / elapsed, errors);
+    }
+
+    // Each client sends its next request as soon as the previous one returns
+    private static int load(HttpClient client, HttpRequest request, int clients, int seconds, LatencyLog log)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger errors = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                pool.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) errors.incrementAndGet();
+                            else if (log != null) log.add(System.nanoTime() - sent);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    private static Tomcat server(boolean virtual, int latencyMs) throws IOException, LifecycleException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("vt-bench").toString());
+
+        Connector connector = new Connector();
+        connector.setPort(0);
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+        if (virtual) {
+            // what spring.threads.virtual.enabled=true installs
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+        } else {
+            protocol.setMaxThreads(200);
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "blocking", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                try {
+                    Thread.sleep(latencyMs); // the blocking Mongo round trip
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"id\":\"1\",\"brand\":\"Toyota\"}");
+            }
+        });
+        context.addServletMappingDecoded("/*", "blocking");
+        return tomcat;
+    }
+
+    // ================= RESULTS =================
+    private static final class LatencyLog {
+        private final long[] nanos;
+        private final AtomicInteger next = new AtomicInteger();
+
+        LatencyLog(int capacity) {
+            this.nanos = new long[capacity];
+        }
+
+        void add(long value) {
+            int i = next.getAndIncrement();
+            if (i < nanos.length) nanos[i] = value;
+        }
+
+        int count() {
+            return Math.min(next.get(), nanos.length);
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count());
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private record Result(long[] sortedNanos, double throughput, int errors) {
+        double percentile(int p) {
+            if (sortedNanos.length == 0) return 0;
+            int i = (int) Math.ceil(p / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(i, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CarCatalogEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogCacheTests {
+
+	private CatalogCache newCache(SharedCacheStore store) {
+		return new CatalogCache(store, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+	}
+
+	@Test
+	void loadsOnceUntilCatalogChanges() {
+		CatalogCache cache = newCache(new InMemorySharedCacheStore());
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals("v1", cache.get("k", () -> "v" + loads.incrementAndGet()));
+		assertEquals("v1", cache.get("k", () -> "v" + loads.incrementAndGet()));
+
+		cache.onCatalogChange(CarCatalogEvent.of(CarCatalogEvent.Type.APPROVED, "car-1"));
+
+		assertEquals("v2", cache.get("k", () -> "v" + loads.incrementAndGet()));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void invalidationReachesOtherNodesThroughSharedStore() {
+		InMemorySharedCacheStore store = new InMemorySharedCacheStore();
+		CatalogCache nodeA = newCache(store);
+		CatalogCache nodeB = newCache(store);
+
+		nodeA.get("k", () -> "old");
+		assertEquals("old", nodeB.get("k", () -> "unused")); // L2 hit
+
+		nodeA.invalidateAll();
+
+		assertEquals("new", nodeB.get("k", () -> "new"));
+	}
+
+	@Test
+	void loadRacingAnotherNodesInvalidationIsNotServedFromL2() {
+		// pub/sub has not reached node B yet, so only the shared generation moved
+		InMemorySharedCacheStore store = new InMemorySharedCacheStore() {
+			@Override
+			public void publishInvalidation(String originNodeId) {
+			}
+		};
+		CatalogCache nodeA = newCache(store);
+		CatalogCache nodeB = newCache(store);
+
+		nodeB.get("k", () -> {
+			nodeA.invalidateAll(); // the write commits after B read Mongo
+			return "stale";
+		});
+
+		assertEquals("fresh", nodeA.get("k", () -> "fresh"));
+	}
+}
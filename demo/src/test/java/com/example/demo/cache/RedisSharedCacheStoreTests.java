@@ -0,0 +1,48 @@
+package com.example.demo.cache;
+
+import com.example.demo.config.RedisConfig;
+import com.example.demo.model.Car;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class RedisSharedCacheStoreTests {
+
+	// the serializer RedisSharedCacheStore writes and reads L2 entries with
+	@SuppressWarnings("unchecked")
+	private final RedisSerializer<Object> serializer =
+			(RedisSerializer<Object>) new RedisConfig().redisTemplate().getValueSerializer();
+
+	@Test
+	void carsWithTimestampsSurviveTheRoundTrip() {
+		Car car = new Car();
+		car.setId("car-1");
+		car.setBrand("Tata");
+		car.setPrice(845000.0);
+		car.setFeatures(List.of("ABS", "Sunroof"));
+		car.setCreatedAt(Instant.parse("2024-03-01T10:15:30.123Z"));
+		car.setVersion(42L);
+
+		Car copy = assertInstanceOf(Car.class, serializer.deserialize(serializer.serialize(car)));
+		assertEquals(car.getCreatedAt(), copy.getCreatedAt());
+		assertEquals(42L, copy.getVersion());
+		assertEquals(List.of("ABS", "Sunroof"), copy.getFeatures());
+	}
+
+	@Test
+	void cachedListsComeBackAsCars() {
+		Car car = new Car();
+		car.setId("car-2");
+		car.setCreatedAt(Instant.parse("2024-03-02T08:00:00Z"));
+		List<Car> cars = new ArrayList<>(List.of(car));
+
+		List<?> copy = assertInstanceOf(List.class, serializer.deserialize(serializer.serialize(cars)));
+		assertEquals(car.getCreatedAt(), assertInstanceOf(Car.class, copy.get(0)).getCreatedAt());
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Car;
+import com.example.demo.service.CarCatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CatalogCompressionTests {
+
+	@LocalServerPort
+	private int port;
+
+	@MockBean
+	private CarCatalogService carCatalogService;
+
+	@Test
+	void catalogListIsGzippedAndStillTagged() throws Exception {
+		// well over server.compression.min-response-size
+		List<Car> cars = IntStream.range(0, 100).mapToObj(i -> {
+			Car car = new Car();
+			car.setId("car-" + i);
+			car.setTitle("Hyundai Creta SX(O) 1.5 Diesel " + i);
+			car.setPrice(1450000.0 + i);
+			return car;
+		}).toList();
+		when(carCatalogService.findApproved(isNull(), any())).thenReturn(cars);
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cars/all"))
+				.header("Accept", "application/json")
+				.header("Accept-Encoding", "gzip")
+				.build();
+		HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+		assertEquals(200, response.statusCode());
+		assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+		assertTrue(response.headers().firstValue("ETag").orElse("").startsWith("W/\""));
+
+		try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+			assertTrue(new String(body.readAllBytes()).contains("\"car-99\""));
+		}
+	}
+}
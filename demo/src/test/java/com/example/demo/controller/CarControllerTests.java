@@ -0,0 +1,72 @@
+package com.example.demo.controller;
+
+import com.example.demo.event.CatalogEventBus;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.BlobStore;
+import com.example.demo.service.CarCatalogService;
+import com.example.demo.service.CarSubmissionService;
+import com.example.demo.service.CatalogSyncService;
+import com.example.demo.service.NdjsonWriter;
+import com.example.demo.service.RecommendationSampler;
+import com.example.demo.service.ResumableUploadService;
+import com.example.demo.service.ShowroomDirectory;
+import com.example.demo.service.SimilarCarsIndex;
+import com.example.demo.service.SuggestionIndex;
+import com.example.demo.service.TextSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CarControllerTests {
+
+	private final CarRepository carRepository = mock(CarRepository.class);
+	private final JwtUtil jwtUtil = mock(JwtUtil.class);
+	private final BlobStore blobStore = mock(BlobStore.class);
+	private final ResumableUploadService resumableUploadService = mock(ResumableUploadService.class);
+
+	private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new CarController(
+			carRepository, mock(ShowroomDirectory.class), jwtUtil, blobStore, mock(CarCatalogService.class),
+			mock(CatalogEventBus.class), mock(RecommendationSampler.class), mock(NdjsonWriter.class),
+			mock(TextSearchService.class), mock(SuggestionIndex.class), mock(SimilarCarsIndex.class),
+			resumableUploadService, mock(CarSubmissionService.class), mock(CatalogSyncService.class))).build();
+
+	private final MockMultipartFile image = new MockMultipartFile("image", "car.jpg", "image/jpeg", new byte[] {1});
+
+	@Test
+	void addBasicWithoutAnyCertificateIsRejected() throws Exception {
+		mvc.perform(multipart("/api/cars/add-basic").file(image).param("title", "Creta"))
+				.andExpect(status().isBadRequest());
+
+		verify(carRepository, never()).save(any(Car.class));
+		verify(blobStore, never()).storeMedia(any(MockMultipartFile.class));
+	}
+
+	@Test
+	void addBasicAcceptsAFinishedUploadInsteadOfTheFile() throws Exception {
+		when(jwtUtil.extractUsername("jwt")).thenReturn("seller@x.com");
+		when(resumableUploadService.claim("upload-1", "seller@x.com")).thenReturn("blob-1");
+		when(carRepository.save(any(Car.class))).thenAnswer(invocation -> {
+			Car car = invocation.getArgument(0);
+			car.setId("car-1");
+			return car;
+		});
+
+		mvc.perform(multipart("/api/cars/add-basic").file(image)
+						.param("certificateUploadId", "upload-1")
+						.header("Authorization", "Bearer jwt"))
+				.andExpect(status().isOk());
+
+		verify(resumableUploadService).claim("upload-1", "seller@x.com");
+	}
+}
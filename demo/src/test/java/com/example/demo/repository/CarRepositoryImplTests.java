@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Car;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CarRepositoryImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final CatalogSequence catalogSequence = mock(CatalogSequence.class);
+	private final CarRepositoryImpl repository = new CarRepositoryImpl(mongoTemplate, catalogSequence);
+
+	@Test
+	void failedSaveStillReleasesItsVersion() {
+		Car car = car(true);
+		when(catalogSequence.reserve(1)).thenReturn(42L);
+		when(mongoTemplate.save(car)).thenThrow(new IllegalStateException("duplicate key"));
+
+		assertThrows(IllegalStateException.class, () -> repository.save(car));
+
+		// otherwise /changes readers stay held back until the hold timeout
+		verify(catalogSequence).release(42L);
+	}
+
+	@Test
+	void pendingCarsAreSavedWithoutAReservation() {
+		Car car = car(false);
+		when(mongoTemplate.save(car)).thenReturn(car);
+
+		assertEquals(car, repository.save(car));
+
+		verify(catalogSequence, never()).reserve(anyInt());
+		verify(catalogSequence, never()).release(anyLong());
+	}
+
+	private static Car car(boolean approved) {
+		Car car = new Car();
+		car.setId("creta");
+		car.setApproved(approved);
+		return car;
+	}
+}
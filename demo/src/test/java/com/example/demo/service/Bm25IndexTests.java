@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTests {
+
+	@Test
+	void ranksDocumentsMatchingMoreQueryTermsFirst() {
+		Bm25Index index = new Bm25Index();
+		index.put("suv", Bm25Index.tokenize("Creta SX", "Diesel", "SUV", "sunroof, cruise control"));
+		index.put("sedan", Bm25Index.tokenize("City ZX", "Petrol", "Sedan", "sunroof"));
+		index.put("hatch", Bm25Index.tokenize("Swift", "Petrol", "Hatchback"));
+
+		List<String> hits = index.search(Bm25Index.tokenize("sunroof diesel SUV"), 10);
+
+		assertEquals(List.of("suv", "sedan"), hits);
+	}
+
+	@Test
+	void removedDocumentsDisappearAndSurviveCompaction() {
+		Bm25Index index = new Bm25Index();
+		for (int i = 0; i < 10; i++) {
+			index.put("car-" + i, Bm25Index.tokenize("petrol hatchback", i % 2 == 0 ? "sunroof" : "manual"));
+		}
+
+		index.remove("car-0");
+		index.put("car-2", Bm25Index.tokenize("diesel sedan"));
+		index.compact();
+
+		List<String> hits = index.search(Bm25Index.tokenize("sunroof"), 10);
+		assertEquals(3, hits.size());
+		assertTrue(hits.containsAll(List.of("car-4", "car-6", "car-8")));
+		assertEquals(List.of("car-2"), index.search(Bm25Index.tokenize("diesel"), 10));
+		assertEquals(9, index.size());
+	}
+
+	@Test
+	void documentReputManyTimesIsStillFound() {
+		Bm25Index index = new Bm25Index();
+		index.put("city", Bm25Index.tokenize("City ZX", "Petrol"));
+		// each UPDATED event re-puts the car; well below the compaction threshold
+		for (int i = 0; i < 500; i++) {
+			index.put("creta", Bm25Index.tokenize("Creta SX", "Diesel"));
+		}
+
+		assertEquals(List.of("creta"), index.search(Bm25Index.tokenize("diesel"), 10));
+		assertEquals(2, index.size());
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CatalogChanges;
+import com.example.demo.model.Car;
+import com.example.demo.model.CarTombstone;
+import com.example.demo.repository.CarFields;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.CatalogSequence;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSyncServiceTests {
+
+	private final CarRepository carRepository = mock(CarRepository.class);
+	private final CatalogSequence catalogSequence = mock(CatalogSequence.class);
+	private final CatalogSyncService service = new CatalogSyncService(carRepository, catalogSequence, Duration.ofDays(30));
+
+	@Test
+	void mergesUpsertsAndRemovalsInVersionOrderUpToTheLimit() {
+		when(catalogSequence.stableVersion()).thenReturn(20L);
+		when(carRepository.findChangedSince(10, 20, 4, CarFields.CARD_PROFILE))
+				.thenReturn(List.of(car("a", 11), car("b", 14), car("c", 15)));
+		when(carRepository.findRemovedSince(10, 20, 4))
+				.thenReturn(List.of(tombstone("x", 12), tombstone("y", 16)));
+
+		CatalogChanges first = service.changesSince(10, 3, CarFields.CARD_PROFILE);
+		assertEquals(List.of("a", "b"), first.getUpserts().stream().map(Car::getId).toList());
+		assertEquals(List.of("x"), first.getRemoved());
+		assertEquals(14, first.getVersion());
+		assertTrue(first.isHasMore());
+
+		// everything fits: the next since skips to the stable version
+		when(carRepository.findChangedSince(14, 20, 4, CarFields.CARD_PROFILE)).thenReturn(List.of(car("c", 15)));
+		when(carRepository.findRemovedSince(14, 20, 4)).thenReturn(List.of(tombstone("y", 16)));
+
+		CatalogChanges second = service.changesSince(14, 3, CarFields.CARD_PROFILE);
+		assertEquals(20, second.getVersion());
+		assertFalse(second.isHasMore());
+	}
+
+	@Test
+	void clientBehindThePurgedTombstonesMustStartOver() {
+		when(catalogSequence.tombstoneFloor()).thenReturn(100L);
+
+		assertTrue(service.changesSince(50, 500, CarFields.CARD_PROFILE).isReset());
+		verify(carRepository, never()).findRemovedSince(anyLong(), anyLong(), anyInt());
+
+		when(catalogSequence.stableVersion()).thenReturn(120L);
+		assertFalse(service.changesSince(0, 500, CarFields.CARD_PROFILE).isReset());
+	}
+
+	private static Car car(String id, long version) {
+		Car car = new Car();
+		car.setId(id);
+		car.setVersion(version);
+		return car;
+	}
+
+	private static CarTombstone tombstone(String id, long version) {
+		return new CarTombstone(id, version, Instant.now());
+	}
+}
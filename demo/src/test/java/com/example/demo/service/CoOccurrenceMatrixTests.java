@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoOccurrenceMatrixTests {
+
+	@Test
+	void ranksCarsByHowManyUsersSavedBoth() {
+		CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+		matrix.add("a@x.com", "creta");
+		matrix.add("a@x.com", "seltos");
+		matrix.add("b@x.com", "creta");
+		matrix.add("b@x.com", "seltos");
+		matrix.add("b@x.com", "city");
+		matrix.add("c@x.com", "creta");
+		matrix.add("c@x.com", "city");
+		matrix.add("c@x.com", "seltos");
+		matrix.add("d@x.com", "creta");
+		matrix.add("d@x.com", "nexon");
+
+		assertEquals(List.of("seltos", "city", "nexon"), matrix.alsoSaved("creta", 10));
+		assertEquals(List.of("creta", "city"), matrix.alsoSaved("seltos", 10));
+		assertEquals(List.of(), matrix.forUser("nobody@x.com", 10));
+		assertEquals(List.of("city", "nexon"), matrix.forUser("a@x.com", 10));
+	}
+
+	@Test
+	void unsavingAndRemovingCarsUndoTheirCounts() {
+		CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+		matrix.add("a@x.com", "creta");
+		matrix.add("a@x.com", "seltos");
+		matrix.add("b@x.com", "creta");
+		matrix.add("b@x.com", "city");
+
+		matrix.remove("a@x.com", "seltos");
+		assertEquals(List.of("city"), matrix.alsoSaved("creta", 10));
+
+		matrix.removeCar("city");
+		assertEquals(List.of(), matrix.alsoSaved("creta", 10));
+		assertEquals(List.of(), matrix.forUser("b@x.com", 10));
+	}
+
+	@Test
+	void compactionTrimsBothSidesOfADroppedPair() {
+		CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+		int partners = CoOccurrenceMatrix.MAX_ROW + 100;
+		for (int i = 0; i < partners; i++) {
+			matrix.add("user-" + i + "@x.com", "creta");
+			matrix.add("user-" + i + "@x.com", "car-" + i);
+		}
+
+		matrix.compact();
+
+		// every pair creta kept is still seen from the partner's side, and no other
+		long stillPaired = IntStream.range(0, partners)
+				.filter(i -> matrix.alsoSaved("car-" + i, 10).contains("creta"))
+				.count();
+		assertEquals(CoOccurrenceMatrix.MAX_ROW, stillPaired);
+	}
+}
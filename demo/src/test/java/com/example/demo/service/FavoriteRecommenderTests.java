@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Favorite;
+import com.example.demo.repository.FavoriteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FavoriteRecommenderTests {
+
+	private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+	private final FavoriteRecommender recommender = new FavoriteRecommender(favoriteRepository);
+
+	@Test
+	void togglesDuringTheFirstLoadAreNotDropped() {
+		// saved after the read began, so missing from what it returns
+		when(favoriteRepository.findAll(any(Sort.class))).thenAnswer(invocation -> {
+			recommender.favoriteAdded("a@x.com", "seltos");
+			recommender.favoriteRemoved("a@x.com", "city");
+			return List.of(
+					new Favorite("a@x.com", "creta", "New"),
+					new Favorite("a@x.com", "city", "New"));
+		});
+
+		assertEquals(List.of("seltos"), recommender.alsoSaved("creta", 10));
+	}
+}
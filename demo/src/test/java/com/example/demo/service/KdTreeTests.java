@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class KdTreeTests {
+
+	private static final int DIMS = 6;
+
+	@Test
+	void nearestMatchesBruteForce() {
+		Random random = new Random(42);
+		int n = 2000;
+		String[] ids = new String[n];
+		float[] coords = new float[n * DIMS];
+		for (int i = 0; i < n; i++) {
+			ids[i] = "car-" + i;
+			for (int d = 0; d < DIMS; d++) {
+				coords[i * DIMS + d] = d < 3 ? (float) random.nextGaussian() : random.nextInt(2);
+			}
+		}
+		KdTree tree = new KdTree(DIMS, ids, coords);
+
+		for (int q = 0; q < 50; q++) {
+			int self = random.nextInt(n);
+			float[] query = tree.vector(ids[self]);
+
+			List<String> expected = IntStream.range(0, n)
+					.filter(i -> i != self)
+					.boxed()
+					.sorted(Comparator.comparingDouble(i -> distance(query, coords, i)))
+					.limit(5)
+					.map(i -> ids[i])
+					.toList();
+
+			assertEquals(expected, tree.nearest(query, 5, ids[self]));
+		}
+	}
+
+	@Test
+	void removedPointsAreSkippedAndPendingPointsFound() {
+		String[] ids = IntStream.range(0, 100).mapToObj(i -> "car-" + i).toArray(String[]::new);
+		float[] coords = new float[100 * DIMS];
+		for (int i = 0; i < 100; i++) {
+			coords[i * DIMS] = i;
+		}
+		KdTree tree = new KdTree(DIMS, ids, coords);
+
+		tree.remove("car-51");
+		tree.put("car-new", new float[] {50.4f, 0, 0, 0, 0, 0});
+
+		List<String> hits = tree.nearest(tree.vector("car-50"), 2, "car-50");
+
+		assertEquals(List.of("car-new", "car-49"), hits);
+		assertFalse(hits.contains("car-51"));
+		assertEquals(100, tree.size());
+	}
+
+	@Test
+	void buildsWithMoreDimensionsThanFitInAByte() {
+		int dims = 300;
+		int n = 64;
+		String[] ids = IntStream.range(0, n).mapToObj(i -> "car-" + i).toArray(String[]::new);
+		float[] coords = new float[n * dims];
+		for (int i = 0; i < n; i++) {
+			coords[i * dims + 200 + i] = 1; // only dimensions past 127 tell them apart
+			coords[i * dims] = i * 0.01f;
+		}
+		KdTree tree = new KdTree(dims, ids, coords);
+
+		float[] query = tree.vector("car-10").clone();
+		assertEquals(List.of("car-10"), tree.nearest(query, 1, null));
+	}
+
+	private static double distance(float[] query, float[] coords, int point) {
+		double sum = 0;
+		for (int d = 0; d < DIMS; d++) {
+			double diff = query[d] - coords[point * DIMS + d];
+			sum += diff * diff;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MediaTypesTests {
+
+	@Test
+	void recognisesOnlyTheAllowedSignatures() {
+		assertEquals(MediaTypes.JPEG, sniff(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+		assertEquals(MediaTypes.PNG, sniff(new byte[] {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}));
+		assertEquals(MediaTypes.WEBP, sniff("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)));
+		assertEquals(MediaTypes.PDF, sniff("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)));
+
+		assertNull(sniff("<svg xmlns=\"http://www.w3.org/2000/svg\">".getBytes(StandardCharsets.US_ASCII)));
+		assertNull(sniff("<html><script>".getBytes(StandardCharsets.US_ASCII)));
+		assertNull(sniff(new byte[] {(byte) 0xFF}));
+	}
+
+	@Test
+	void refusesWhatTheBytesDoNotBackAndServesUnknownTypesAsDownloads() {
+		ByteArrayResource svg = new ByteArrayResource("<svg onload=alert(1)>".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(ResponseStatusException.class, () -> MediaTypes.require(svg, MediaTypes.IMAGES));
+
+		ByteArrayResource pdf = new ByteArrayResource("%PDF-1.4".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(ResponseStatusException.class, () -> MediaTypes.require(pdf, MediaTypes.IMAGES));
+		assertEquals(MediaTypes.PDF, MediaTypes.require(pdf, MediaTypes.CERTIFICATES));
+
+		assertEquals(MediaType.IMAGE_PNG, MediaTypes.servable("image/png; charset=x", MediaTypes.IMAGES));
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, MediaTypes.servable("image/svg+xml", MediaTypes.IMAGES));
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, MediaTypes.servable("text/html", MediaTypes.CERTIFICATES));
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, MediaTypes.servable(null, MediaTypes.IMAGES));
+	}
+
+	private static String sniff(byte[] bytes) {
+		return MediaTypes.sniff(bytes, bytes.length);
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BulkModerationResult;
+import com.example.demo.dto.ModerationOutcome;
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.event.CatalogEventBus;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ModerationServiceTests {
+
+	private final CarRepository carRepository = mock(CarRepository.class);
+	private final BlobStore blobStore = mock(BlobStore.class);
+	private final CatalogEventBus catalogEvents = mock(CatalogEventBus.class);
+	private final ModerationService service = new ModerationService(carRepository, blobStore, catalogEvents, new SimpleMeterRegistry());
+
+	@Test
+	void approvesPendingCarsInOneWriteAndReportsEachId() {
+		when(carRepository.findApprovalStates(anyCollection()))
+				.thenReturn(List.of(car("a", false, null), car("b", true, null), car("c", null, null)));
+		when(carRepository.approvePending(List.of("a", "c"))).thenReturn(List.of("a", "c"));
+
+		BulkModerationResult result = service.approve(List.of("a", "b", "c", "missing", "a"));
+
+		assertEquals(4, result.getRequested());
+		assertEquals(2, result.getChanged());
+		assertEquals(List.of(ModerationOutcome.Status.APPROVED, ModerationOutcome.Status.ALREADY_APPROVED,
+						ModerationOutcome.Status.APPROVED, ModerationOutcome.Status.NOT_FOUND),
+				result.getResults().stream().map(ModerationOutcome::getStatus).toList());
+
+		verify(carRepository, times(1)).approvePending(List.of("a", "c"));
+		ArgumentCaptor<CarCatalogEvent> event = ArgumentCaptor.forClass(CarCatalogEvent.class);
+		verify(catalogEvents, times(1)).publish(event.capture());
+		assertEquals(CarCatalogEvent.Type.APPROVED, event.getValue().getType());
+		assertEquals(List.of("a", "c"), event.getValue().getCarIds());
+	}
+
+	@Test
+	void approveReportsOnlyWhatItsOwnWriteChanged() {
+		when(carRepository.findApprovalStates(anyCollection()))
+				.thenReturn(List.of(car("a", false, null), car("b", false, null), car("c", false, null)))
+				// re-read of the two the bulk write missed: b was approved elsewhere, c deleted
+				.thenReturn(List.of(car("b", true, null)));
+		when(carRepository.approvePending(List.of("a", "b", "c"))).thenReturn(List.of("a"));
+
+		BulkModerationResult result = service.approve(List.of("a", "b", "c"));
+
+		assertEquals(1, result.getChanged());
+		assertEquals(List.of(ModerationOutcome.Status.APPROVED, ModerationOutcome.Status.ALREADY_APPROVED,
+						ModerationOutcome.Status.NOT_FOUND),
+				result.getResults().stream().map(ModerationOutcome::getStatus).toList());
+		ArgumentCaptor<CarCatalogEvent> event = ArgumentCaptor.forClass(CarCatalogEvent.class);
+		verify(catalogEvents).publish(event.capture());
+		assertEquals(List.of("a"), event.getValue().getCarIds());
+	}
+
+	@Test
+	void rejectReleasesAndReportsExactlyTheCarsItRemoved() {
+		// "b" was claimed by a concurrent rejection, which reports and releases it itself
+		when(carRepository.removeByIds(List.of("a", "b", "x"))).thenReturn(List.of(car("a", false, "img-a")));
+
+		BulkModerationResult result = service.reject(List.of("a", "b", "x"));
+
+		assertEquals(1, result.getChanged());
+		assertEquals(List.of(ModerationOutcome.Status.REJECTED, ModerationOutcome.Status.NOT_FOUND, ModerationOutcome.Status.NOT_FOUND),
+				result.getResults().stream().map(ModerationOutcome::getStatus).toList());
+		verify(blobStore).release("img-a");
+		verify(blobStore, never()).release("img-b");
+		ArgumentCaptor<CarCatalogEvent> event = ArgumentCaptor.forClass(CarCatalogEvent.class);
+		verify(catalogEvents).publish(event.capture());
+		assertEquals(List.of("a"), event.getValue().getCarIds());
+	}
+
+	private static Car car(String id, Boolean approved, String imageId) {
+		Car car = new Car();
+		car.setId(id);
+		car.setApproved(approved);
+		car.setImageId(imageId);
+		return car;
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimilarCarsIndexTests {
+
+	private final CarRepository carRepository = mock(CarRepository.class);
+	private final SimilarCarsIndex index = new SimilarCarsIndex(carRepository);
+
+	@Test
+	void manyFreeTextFuelTypesStillBuild() {
+		// sellers type whatever they like; each value used to cost a dimension
+		List<Car> cars = IntStream.range(0, 300)
+				.mapToObj(i -> car("car-" + i, 500000.0 + i * 1000, "fuel " + i))
+				.toList();
+		when(carRepository.findApproved(null, SimilarCarsIndex.FEATURE_FIELDS)).thenReturn(cars);
+
+		index.rebuild();
+
+		assertEquals(300, index.size());
+		assertEquals(List.of("car-11", "car-9"), index.similar("car-10", 2));
+	}
+
+	private static Car car(String id, double price, String fuelType) {
+		Car car = new Car();
+		car.setId(id);
+		car.setPrice(price);
+		car.setFuelType(fuelType);
+		car.setApproved(true);
+		return car;
+	}
+}
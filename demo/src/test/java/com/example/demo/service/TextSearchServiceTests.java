@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CarCatalogEvent;
+import com.example.demo.model.Car;
+import com.example.demo.repository.CarRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TextSearchServiceTests {
+
+	private final CarRepository carRepository = mock(CarRepository.class);
+	private final TextSearchService service = new TextSearchService(carRepository);
+
+	@Test
+	void changesDuringTheRebuildReadSurviveTheSwap() {
+		Car sunroof = car("a", "Sunroof");
+		Car diesel = car("b", "Diesel");
+
+		// both events land after the rebuild's read started, so the snapshot still has "a" and not "b"
+		when(carRepository.findApproved(null, TextSearchService.TEXT_FIELDS)).thenAnswer(invocation -> {
+			service.onCatalogChange(CarCatalogEvent.of(CarCatalogEvent.Type.REJECTED, "a"));
+			service.onCatalogChange(CarCatalogEvent.of(CarCatalogEvent.Type.APPROVED, "b"));
+			return List.of(sunroof);
+		});
+		when(carRepository.findApprovedByIds(anyCollection(), any())).thenReturn(List.of(diesel));
+
+		service.rebuild();
+
+		assertEquals(List.of(), service.search("sunroof", 10));
+		assertEquals(List.of("b"), service.search("diesel", 10));
+	}
+
+	private static Car car(String id, String title) {
+		Car car = new Car();
+		car.setId(id);
+		car.setTitle(title);
+		car.setApproved(true);
+		return car;
+	}
+}
@@ -1,30 +1,62 @@
 import { useEffect, useState } from "react";
 import axios from "axios";
+import { mediaUrl } from "../api/api";
 import "./AdminPending.css";
 
 export default function AdminPendingCars() {
   const [cars, setCars] = useState([]);
   const [selectedCar, setSelectedCar] = useState(null);
+  const [checked, setChecked] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [certificate, setCertificate] = useState(null);
 
   useEffect(() => {
     loadCars();
   }, []);
 
-  const loadCars = async () => {
-  const token = localStorage.getItem("token");
-
+  // Oldest first, one page at a time; after = nextCursor of the previous page
+  const loadCars = async (after) => {
   const res = await axios.get(
     "/api/admin/cars/pending",
     {
+      params: { after, limit: 20 },
       headers: {
       Authorization: `Bearer ${localStorage.getItem("token")}`
       }
     }
   );
 
-  setCars(res.data);
+  setCars((prev) => (after ? [...prev, ...res.data.items] : res.data.items));
+  setNextCursor(res.data.nextCursor);
+  if (!after) setChecked([]);
 };
 
+  // ✅ Certificate is only downloaded when its car is opened
+  useEffect(() => {
+    if (!selectedCar || !selectedCar.certificateUrl) {
+      setCertificate(null);
+      return;
+    }
+
+    let objectUrl = null;
+    axios
+      .get(selectedCar.certificateUrl, {
+        responseType: "blob",
+        headers: {
+          Authorization: `Bearer ${localStorage.getItem("token")}`
+        }
+      })
+      .then((res) => {
+        objectUrl = URL.createObjectURL(res.data);
+        setCertificate({ url: objectUrl, type: res.data.type });
+      })
+      .catch(() => setCertificate(null));
+
+    return () => {
+      if (objectUrl) URL.revokeObjectURL(objectUrl);
+    };
+  }, [selectedCar]);
+
 
   const approveCar = async (id) => {
   const token = localStorage.getItem("token");
@@ -59,27 +91,60 @@ const rejectCar = async (id) => {
   loadCars();
 };
 
+  const toggleChecked = (id) => {
+    setChecked((ids) =>
+      ids.includes(id) ? ids.filter((x) => x !== id) : [...ids, id]
+    );
+  };
 
-  // ✅ Get certificate safely
-  const getCertificate = (car) => {
-    return (
-      car.certificate ||
-      car.certificateImage ||
-      car.rcCertificate ||
-      null
+  // One request for the whole selection
+  const moderateChecked = async (action) => {
+    const res = await axios.post(
+      `/api/admin/cars/bulk/${action}`,
+      { ids: checked },
+      {
+        headers: {
+          Authorization: `Bearer ${localStorage.getItem("token")}`
+        }
+      }
     );
+
+    const missed = res.data.results.filter((r) => r.status === "NOT_FOUND");
+    if (missed.length > 0) {
+      alert(`${missed.length} car(s) were already removed`);
+    }
+    loadCars();
   };
 
   return (
     <div className="admin-page">
       <h2 className="admin-heading">Pending Car Approvals</h2>
 
+      {checked.length > 0 && (
+        <div className="action-row">
+          <button className="approve" onClick={() => moderateChecked("approve")}>
+            Approve selected ({checked.length})
+          </button>
+          <button className="reject" onClick={() => moderateChecked("reject")}>
+            Reject selected ({checked.length})
+          </button>
+          <button className="close" onClick={() => setChecked([])}>
+            Clear
+          </button>
+        </div>
+      )}
+
       <div className="card-grid">
         {cars.map((car) => (
           <div className="admin-card" key={car.id}>
-            {car.image && (
+            <input
+              type="checkbox"
+              checked={checked.includes(car.id)}
+              onChange={() => toggleChecked(car.id)}
+            />
+            {car.imageUrl && (
               <img
-                src={`data:image/jpeg;base64,${car.image}`}
+                src={mediaUrl(car.imageUrl, "card")}
                 className="card-car-img"
                 alt="Car"
               />
@@ -98,6 +163,12 @@ const rejectCar = async (id) => {
         ))}
       </div>
 
+      {nextCursor && (
+        <button className="view-btn" onClick={() => loadCars(nextCursor)}>
+          Load more
+        </button>
+      )}
+
       {/* ================= MODAL ================= */}
       {selectedCar && (
         <div className="modal-overlay">
@@ -107,11 +178,11 @@ const rejectCar = async (id) => {
             {/* 🔹 Images */}
             <div className="image-row">
               {/* CAR IMAGE */}
-              {selectedCar.image && (
+              {selectedCar.imageUrl && (
                 <div>
                   <p className="img-title">Car Image</p>
                   <img
-                    src={`data:image/jpeg;base64,${selectedCar.image}`}
+                    src={mediaUrl(selectedCar.imageUrl)}
                     className="modal-img"
                     alt="Car"
                   />
@@ -119,27 +190,30 @@ const rejectCar = async (id) => {
               )}
 
               {/* CERTIFICATE */}
-              {getCertificate(selectedCar) ? (
+              {selectedCar.certificateUrl ? (
                 <div>
                   <p className="img-title">Certificate</p>
 
-                  {/* Image */}
-                  <img
-                    src={`data:image/jpeg;base64,${getCertificate(selectedCar)}`}
-                    className="modal-img"
-                    alt="Certificate"
-                    onError={(e) => (e.target.style.display = "none")}
-                  />
+                  {certificate && certificate.type.startsWith("image/") && (
+                    <img
+                      src={certificate.url}
+                      className="modal-img"
+                      alt="Certificate"
+                    />
+                  )}
 
-                  {/* PDF fallback */}
-                  <a
-                    href={`data:application/pdf;base64,${getCertificate(selectedCar)}`}
-                    target="_blank"
-                    rel="noreferrer"
-                    className="pdf-link"
-                  >
-                    View Certificate PDF
-                  </a>
+                  {certificate && !certificate.type.startsWith("image/") && (
+                    <a
+                      href={certificate.url}
+                      target="_blank"
+                      rel="noreferrer"
+                      className="pdf-link"
+                    >
+                      View Certificate PDF
+                    </a>
+                  )}
+
+                  {!certificate && <p className="img-title">Loading…</p>}
                 </div>
               ) : (
                 <p className="no-cert">No certificate uploaded</p>
@@ -157,6 +231,9 @@ const rejectCar = async (id) => {
               <p><b>Owner Name:</b> {selectedCar.ownerName}</p>
               <p><b>Owner Phone:</b> {selectedCar.ownerPhone}</p>
               <p><b>Price:</b> ₹{selectedCar.price}</p>
+              {selectedCar.createdAt && (
+                <p><b>Submitted:</b> {new Date(selectedCar.createdAt).toLocaleString()}</p>
+              )}
             </div>
 
             <div className="description">
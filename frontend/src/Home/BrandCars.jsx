@@ -1,6 +1,6 @@
 import { useNavigate, useParams} from "react-router-dom";
 import { useEffect, useState } from "react";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 
 
 export default function BrandCars() {
@@ -35,7 +35,7 @@ export default function BrandCars() {
           <div className="car-card" key={car.id || car._id}>
             <div className="car-image-box">
               <img
-                src={`data:image/jpeg;base64,${car.image}`}
+                src={mediaUrl(car.imageUrl, "card")}
                 alt={car.title}
               />
             </div>
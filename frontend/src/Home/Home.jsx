@@ -18,7 +18,7 @@ import bentley from "../assets/brands/bentley.png";
 import mercedes from "../assets/brands/mercedes.png";
 import jaguar from "../assets/brands/jaguar.png";
 
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 
 /* ==== Brand Data ==== */
 const BRANDS = [
@@ -137,7 +137,7 @@ export default function Home() {
           {recommendedCars.map((car) => (
             <div className="car-card" key={car.id || car._id}>
               <img
-                src={car.image ? `data:image/jpeg;base64,${car.image}` : "/placeholder.jpg"}
+                src={car.imageUrl ? mediaUrl(car.imageUrl, "card") : "/placeholder.jpg"}
                 alt={car.title || "Car"}
               />
               <h3 className="name">{car.title}</h3>
@@ -1,6 +1,7 @@
 import { useState } from "react";
 import { useNavigate } from "react-router-dom";
 import Navbar from "../Home/Navbar";
+import { submitCar } from "../api/submitCar";
 import sellimage from "../assets/car.jpg";
 import "./SellCar.css";
 
@@ -96,21 +97,14 @@ if (!token) {
   return;
 }
 
-const res = await fetch("http://65.2.49.242:8080/api/cars/add", {
-  method: "POST",
-  headers: {
-    Authorization: `Bearer ${token}`
-  },
-  body: formData
-});
-
-    if (!res.ok) throw new Error("Upload failed");
+    // 202 only means accepted; wait for the car to be saved (or the reason it wasn't)
+    await submitCar(formData, token);
 
     alert("Car sent for admin approval");
     navigate("/");
   } catch (err) {
     console.error(err);
-    alert("Upload failed");
+    alert(err.message || "Upload failed");
   }
 };
 
@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 import "./UsedCar.css";
 
 export default function UsedCars() {
@@ -300,9 +300,9 @@ export default function UsedCars() {
             </div>
 
             <div className="car-image-box">
-              {car.image ? (
+              {car.imageUrl ? (
                 <img
-                  src={`data:image/jpeg;base64,${car.image}`}
+                  src={mediaUrl(car.imageUrl, "card")}
                   alt={car.title}
                 />
               ) : (
@@ -17,4 +17,9 @@ api.interceptors.request.use((config) => {
   return Promise.reject(error);
 });
 
+// Car images are served by /api/media/{id}; the API returns relative URLs.
+// size: "thumb" | "card" | "detail" (resized JPEG), omitted = original upload
+export const mediaUrl = (path, size) =>
+  path ? `${api.defaults.baseURL}${path}${size ? `?size=${size}` : ""}` : null;
+
 export default api;
\ No newline at end of file
@@ -0,0 +1,42 @@
+import SockJS from "sockjs-client";
+import { Client } from "@stomp/stompjs";
+
+// Live catalog changes pushed on /topic/cars as { type, ids, cars }
+// type: APPROVED | UPDATED (cars = changed cards) | REJECTED (ids only)
+export const subscribeCatalog = (onDelta) => {
+  const client = new Client({
+    webSocketFactory: () => new SockJS("/ws"),
+    reconnectDelay: 5000,
+  });
+
+  client.onConnect = () => {
+    client.subscribe("/topic/cars", (msg) => onDelta(JSON.parse(msg.body)));
+  };
+  client.activate();
+
+  return () => client.deactivate();
+};
+
+// Patch a list of cards with one delta; belongs(car) = should it be on this page
+export const applyCatalogDelta = (cars, delta, belongs = () => true) => {
+  if (delta.type === "REJECTED") {
+    const gone = new Set(delta.ids);
+    return cars.filter((c) => !gone.has(c.id));
+  }
+
+  const changed = new Map(delta.cars.map((c) => [c.id, c]));
+
+  // updated cards stay where they are (keeping local flags like isFavourite)
+  const kept = [];
+  cars.forEach((c) => {
+    const next = changed.get(c.id);
+    if (!next) kept.push(c);
+    else if (belongs(next)) kept.push({ ...c, ...next });
+  });
+
+  // newly approved cards go first
+  const known = new Set(cars.map((c) => c.id));
+  const added = delta.cars.filter((c) => !known.has(c.id) && belongs(c));
+
+  return [...added, ...kept];
+};
@@ -0,0 +1,65 @@
+import api from "./api";
+
+// Local copy of the approved catalog in IndexedDB, kept current with
+// GET /api/cars/changes?since=<version> (card fields only)
+const DB_NAME = "cartrizo-catalog";
+const CARS = "cars";
+const META = "meta";
+
+const openDb = () =>
+  new Promise((resolve, reject) => {
+    const req = indexedDB.open(DB_NAME, 1);
+    req.onupgradeneeded = () => {
+      req.result.createObjectStore(CARS, { keyPath: "id" });
+      req.result.createObjectStore(META);
+    };
+    req.onsuccess = () => resolve(req.result);
+    req.onerror = () => reject(req.error);
+  });
+
+const done = (tx) =>
+  new Promise((resolve, reject) => {
+    tx.oncomplete = () => resolve();
+    tx.onerror = () => reject(tx.error);
+  });
+
+const request = (req) =>
+  new Promise((resolve, reject) => {
+    req.onsuccess = () => resolve(req.result);
+    req.onerror = () => reject(req.error);
+  });
+
+// Pulls every change since the stored version, then returns all local cars
+export const syncCatalog = async () => {
+  const db = await openDb();
+  let since = (await request(db.transaction(META).objectStore(META).get("version"))) || 0;
+
+  for (;;) {
+    const { data } = await api.get("api/cars/changes", { params: { since } });
+
+    const tx = db.transaction([CARS, META], "readwrite");
+    const cars = tx.objectStore(CARS);
+
+    if (data.reset) {
+      // too far behind: start again from an empty copy
+      cars.clear();
+      tx.objectStore(META).put(0, "version");
+      await done(tx);
+      since = 0;
+      continue;
+    }
+
+    data.upserts.forEach((car) => cars.put(car));
+    data.removed.forEach((id) => cars.delete(id));
+    tx.objectStore(META).put(data.version, "version");
+    await done(tx);
+
+    since = data.version;
+    if (!data.hasMore) break;
+  }
+
+  const all = await request(db.transaction(CARS).objectStore(CARS).getAll());
+  db.close();
+  // most recently approved or changed first
+  return all.sort((a, b) => b.version - a.version);
+};
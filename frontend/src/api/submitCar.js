@@ -0,0 +1,44 @@
+// POST /api/cars/add only accepts the listing (202); a worker stores the media
+// and saves the car afterwards. submitCar polls the submission until it is
+// DONE or FAILED and resolves to its final status, or throws with the reason.
+const API_URL = "http://65.2.49.242:8080";
+const POLL_MS = 1000;
+const GIVE_UP_MS = 2 * 60 * 1000;
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+const failure = async (res) => {
+  if (res.status === 503) return "Too many cars are being submitted right now, please try again shortly";
+  if (res.status === 415) return "Images must be JPEG, PNG or WebP; certificates may also be PDF";
+  const text = await res.text();
+  return text && !text.startsWith("{") ? text : "Upload failed";
+};
+
+export async function submitCar(formData, token) {
+  const res = await fetch(`${API_URL}/api/cars/add`, {
+    method: "POST",
+    headers: token ? { Authorization: `Bearer ${token}` } : {},
+    body: formData,
+  });
+  if (!res.ok) throw new Error(await failure(res));
+
+  let submission = await res.json();
+  const location =
+    res.headers.get("Location") || `/api/cars/submissions/${submission.submissionId}`;
+  const giveUpAt = Date.now() + GIVE_UP_MS;
+
+  while (submission.status !== "DONE" && submission.status !== "FAILED") {
+    if (Date.now() > giveUpAt) {
+      throw new Error("Your car is still being processed, check back in a few minutes");
+    }
+    await sleep(POLL_MS);
+    const poll = await fetch(`${API_URL}${location}`);
+    if (!poll.ok) throw new Error(await failure(poll));
+    submission = await poll.json();
+  }
+
+  if (submission.status === "FAILED") {
+    throw new Error(submission.error || "Upload failed");
+  }
+  return submission;
+}
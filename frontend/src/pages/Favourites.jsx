@@ -1,7 +1,7 @@
 import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { FaTrashAlt } from "react-icons/fa";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 import "./Favourites.css";
 
 export default function Favourites() {
@@ -102,8 +102,8 @@ export default function Favourites() {
           >
             <img
               src={
-                car.image
-                  ? `data:image/jpeg;base64,${car.image}`
+                car.imageUrl
+                  ? mediaUrl(car.imageUrl, "card")
                   : "/placeholder-car.jpg"
               }
               alt={car.title || `${car.brand || ""} ${car.model || ""}`}
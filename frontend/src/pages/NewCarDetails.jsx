@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { useParams, useNavigate } from "react-router-dom";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 import { FaHeart, FaRegHeart, FaPhoneAlt } from "react-icons/fa";
 import "./CarDetails.css";
 
@@ -38,7 +38,7 @@ export default function NewCarDetails() {
       .get(`/api/cars/${id}`)
       .then(res => {
         setCar(res.data);
-        setImage(res.data.image);
+        setImage(res.data.imageUrl);
       })
       .catch(() => setCar(null))
       .finally(() => setLoading(false));
@@ -173,7 +173,7 @@ export default function NewCarDetails() {
       <div className="image-section">
         <img
           className="main-image"
-          src={`data:image/jpeg;base64,${image}`}
+          src={mediaUrl(image, "detail")}
           alt="car"
         />
 
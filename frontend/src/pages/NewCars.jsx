@@ -1,6 +1,8 @@
 import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
+import { applyCatalogDelta, subscribeCatalog } from "../api/catalogFeed";
+import { syncCatalog } from "../api/catalogReplica";
 import "../UsedCars/UsedCar.css";
 
 export default function NewCars() {
@@ -69,14 +71,17 @@ export default function NewCars() {
   useEffect(() => {
     const fetchCars = async () => {
       try {
-        const [carsRes, favsRes] = await Promise.all([
-          api.get("api/cars/new"),
+        const [localCars, favsRes] = await Promise.all([
+          syncCatalog(),
           buyerEmail ? api.get(`api/favorites/${buyerEmail}`) : Promise.resolve({ data: [] })
         ]);
 
         const favouriteIds = new Set(favsRes.data.map(f => f.carId));
 
-        const carsWithFav = carsRes.data.map((car) => {
+        // local replica, only the changes since the last visit are downloaded
+        const newCars = localCars.filter((car) => car.condition === "New");
+
+        const carsWithFav = newCars.map((car) => {
           const carId = car.id || car._id;
           return {
             ...car,
@@ -96,6 +101,15 @@ export default function NewCars() {
     fetchCars();
   }, [buyerEmail]);
 
+  /* =======================
+     LIVE UPDATES (/topic/cars)
+  ======================== */
+  useEffect(() => {
+    return subscribeCatalog((delta) =>
+      setCars((prev) => applyCatalogDelta(prev, delta, (c) => c.condition === "New"))
+    );
+  }, []);
+
   /* =======================
      FILTER + SEARCH LOGIC
      (100% FRONTEND)
@@ -330,9 +344,9 @@ export default function NewCars() {
             </div>
 
             <div className="car-image-box">
-              {car.image ? (
+              {car.imageUrl ? (
                 <img
-                  src={`data:image/jpeg;base64,${car.image}`}
+                  src={mediaUrl(car.imageUrl, "card")}
                   alt={car.title}
                 />
               ) : (
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import "./Profile.css";
+import { mediaUrl } from "../api/api";
 
 function Profile() {
   const navigate = useNavigate();
@@ -110,6 +111,7 @@ function Profile() {
 
   const avatarSrc =
     preview ||
+    mediaUrl(profile.imageUrl) ||
     (profile.image ? `data:image/jpeg;base64,${profile.image}` : null);
 
   return (
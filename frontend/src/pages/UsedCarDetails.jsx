@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { useParams, useNavigate } from "react-router-dom";
-import api from "../api/api";
+import api, { mediaUrl } from "../api/api";
 import { FaHeart, FaRegHeart, FaPhoneAlt } from "react-icons/fa";
 import { Pie } from "react-chartjs-2";
 import { Chart as ChartJS, ArcElement, Tooltip, Legend } from "chart.js";
@@ -31,7 +31,7 @@ export default function UsedCarDetails() {
       try {
         const res = await api.get(`/api/cars/${id}`);
         setCar(res.data);
-        setSelectedImage(res.data.image || "");
+        setSelectedImage(res.data.imageUrl || "");
 
         // Check if favourite
         if (buyerEmail) {
@@ -133,14 +133,14 @@ export default function UsedCarDetails() {
       <div className="image-section">
         <img
           className="main-image"
-          src={selectedImage ? `data:image/jpeg;base64,${selectedImage}` : "/placeholder-car.jpg"}
+          src={selectedImage ? mediaUrl(selectedImage, "detail") : "/placeholder-car.jpg"}
           alt="car"
         />
         <div className="thumbnail-row">
-          {(car.images || [car.image]).map((img, index) => (
+          {(car.images || [car.imageUrl]).map((img, index) => (
             <img
               key={`${img}-${index}`}
-              src={`data:image/jpeg;base64,${img}`}
+              src={mediaUrl(img, "thumb")}
               className={selectedImage === img ? "thumb active" : "thumb"}
               onClick={() => setSelectedImage(img)}
               alt="thumb"